@@ -0,0 +1,79 @@
+package com.ratacheski.minhasfinancas.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Monta e envia a requisição HTTP de cada {@link Operacao} sobre a massa semeada. Busca e saldo vão para
+ * {@code portaLeitura}, que no modo reativo é a do servidor WebFlux. Cada requisição leva o token do usuário dono dos
+ * dados: {@code tokens} e {@code donosLancamentos} são indexados como {@code idsUsuarios}.
+ */
+class ClienteCarga {
+
+    private static final String[] STATUS = {"EFETIVADO", "PENDENTE", "CANCELADO"};
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String baseUrlLeitura;
+    private final long[] idsUsuarios;
+    private final String[] tokens;
+    private final long[] idsLancamentos;
+    private final int[] donosLancamentos;
+
+    ClienteCarga(HttpClient httpClient, int porta, int portaLeitura, long[] idsUsuarios, String[] tokens,
+                 long[] idsLancamentos, int[] donosLancamentos) {
+        this.httpClient = httpClient;
+        this.baseUrl = "http://localhost:" + porta;
+        this.baseUrlLeitura = "http://localhost:" + portaLeitura;
+        this.idsUsuarios = idsUsuarios;
+        this.tokens = tokens;
+        this.idsLancamentos = idsLancamentos;
+        this.donosLancamentos = donosLancamentos;
+    }
+
+    /**
+     * @return o status HTTP da resposta
+     */
+    int executar(Operacao operacao) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int indiceUsuario = random.nextInt(idsUsuarios.length);
+        long idUsuario = idsUsuarios[indiceUsuario];
+        HttpRequest.Builder requisicao;
+        switch (operacao) {
+            case BUSCA:
+                requisicao = HttpRequest.newBuilder(URI.create(baseUrlLeitura + "/api/lancamentos?usuario=" + idUsuario
+                        + "&ano=" + (2015 + random.nextInt(10)) + "&limit=50")).GET();
+                break;
+            case SALDO:
+                requisicao = HttpRequest.newBuilder(URI.create(baseUrlLeitura + "/api/usuarios/" + idUsuario + "/saldo")).GET();
+                break;
+            case CRIACAO:
+                String lancamento = "{\"descricao\":\"Carga " + random.nextInt(1_000_000) + "\",\"mes\":"
+                        + (random.nextInt(12) + 1) + ",\"ano\":" + (2015 + random.nextInt(10)) + ",\"valor\":"
+                        + (random.nextInt(100_000) + 1) / 100.0 + ",\"tipo\":\""
+                        + (random.nextBoolean() ? "RECEITA" : "DESPESA") + "\",\"usuario\":" + idUsuario + "}";
+                requisicao = json(HttpRequest.newBuilder(URI.create(baseUrl + "/api/lancamentos")))
+                        .POST(HttpRequest.BodyPublishers.ofString(lancamento));
+                break;
+            default:
+                int indiceLancamento = random.nextInt(idsLancamentos.length);
+                long idLancamento = idsLancamentos[indiceLancamento];
+                indiceUsuario = donosLancamentos[indiceLancamento];
+                String status = "{\"status\":\"" + STATUS[random.nextInt(STATUS.length)] + "\"}";
+                requisicao = json(HttpRequest.newBuilder(URI.create(baseUrl + "/api/lancamentos/" + idLancamento
+                        + "/atualiza-status"))).PUT(HttpRequest.BodyPublishers.ofString(status));
+        }
+        requisicao.header("Authorization", "Bearer " + tokens[indiceUsuario]);
+        HttpResponse<Void> resposta = httpClient.send(requisicao.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        return resposta.statusCode();
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder requisicao) {
+        return requisicao.header("Content-Type", "application/json");
+    }
+}
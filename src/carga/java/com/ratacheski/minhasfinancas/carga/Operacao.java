@@ -0,0 +1,24 @@
+package com.ratacheski.minhasfinancas.carga;
+
+/**
+ * Operações sorteadas por cada cliente, na proporção dos pesos de {@link ParametrosCarga}.
+ */
+public enum Operacao {
+    BUSCA,
+    SALDO,
+    CRIACAO,
+    STATUS;
+
+    int peso(ParametrosCarga parametros) {
+        switch (this) {
+            case BUSCA:
+                return parametros.getPesoBusca();
+            case SALDO:
+                return parametros.getPesoSaldo();
+            case CRIACAO:
+                return parametros.getPesoCriacao();
+            default:
+                return parametros.getPesoStatus();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ratacheski.minhasfinancas.carga;
+
+import lombok.Data;
+
+/**
+ * Parâmetros do teste de carga, lidos de argumentos {@code chave=valor}.
+ */
+@Data
+public class ParametrosCarga {
+
+    private int usuarios = 20;
+    private int lancamentosPorUsuario = 5_000;
+    private int clientes = 32;
+    private int aquecimentoSegundos = 10;
+    private int duracaoSegundos = 60;
+    private int pesoBusca = 50;
+    private int pesoSaldo = 30;
+    private int pesoCriacao = 10;
+    private int pesoStatus = 10;
+    private String relatorio = "target/carga/relatorio.json";
+    private String rotulo = "";
+    private boolean threadsVirtuais = false;
+    private boolean reativo = false;
+
+    public static ParametrosCarga de(String[] args) {
+        ParametrosCarga parametros = new ParametrosCarga();
+        for (String arg : args) {
+            int separador = arg.indexOf('=');
+            if (separador < 1) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg + ". Use chave=valor.");
+            }
+            String chave = arg.substring(0, separador);
+            String valor = arg.substring(separador + 1);
+            switch (chave) {
+                case "usuarios":
+                    parametros.usuarios = Integer.parseInt(valor);
+                    break;
+                case "lancamentosPorUsuario":
+                    parametros.lancamentosPorUsuario = Integer.parseInt(valor);
+                    break;
+                case "clientes":
+                    parametros.clientes = Integer.parseInt(valor);
+                    break;
+                case "aquecimentoSegundos":
+                    parametros.aquecimentoSegundos = Integer.parseInt(valor);
+                    break;
+                case "duracaoSegundos":
+                    parametros.duracaoSegundos = Integer.parseInt(valor);
+                    break;
+                case "pesoBusca":
+                    parametros.pesoBusca = Integer.parseInt(valor);
+                    break;
+                case "pesoSaldo":
+                    parametros.pesoSaldo = Integer.parseInt(valor);
+                    break;
+                case "pesoCriacao":
+                    parametros.pesoCriacao = Integer.parseInt(valor);
+                    break;
+                case "pesoStatus":
+                    parametros.pesoStatus = Integer.parseInt(valor);
+                    break;
+                case "relatorio":
+                    parametros.relatorio = valor;
+                    break;
+                case "rotulo":
+                    parametros.rotulo = valor;
+                    break;
+                case "threadsVirtuais":
+                    parametros.threadsVirtuais = Boolean.parseBoolean(valor);
+                    break;
+                case "reativo":
+                    parametros.reativo = Boolean.parseBoolean(valor);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Parâmetro desconhecido: " + chave);
+            }
+        }
+        return parametros;
+    }
+}
@@ -0,0 +1,329 @@
+package com.ratacheski.minhasfinancas.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ratacheski.minhasfinancas.MinhasfinancasApplication;
+import com.ratacheski.minhasfinancas.config.ServidorReativo;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import com.ratacheski.minhasfinancas.service.TokenService;
+import com.ratacheski.minhasfinancas.service.UsuarioService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga ponta a ponta: sobe a aplicação com o perfil {@code test} (H2) em porta aleatória, semeia
+ * {@code usuarios} x {@code lancamentosPorUsuario} lançamentos e dispara {@code clientes} clientes HTTP concorrentes
+ * com a mistura de busca, saldo, criação e atualização de status definida pelos pesos. Cada cliente espera a resposta
+ * antes de enviar a próxima requisição (carga fechada), então a vazão medida é a que o servidor sustenta. As latências de cada operação
+ * vão para um histograma HdrHistogram; o resumo sai no console e em um relatório JSON, acompanhado da distribuição
+ * completa de percentis ({@code .hgrm}) de cada operação, para comparação entre execuções.
+ * <p>
+ * Com {@code threadsVirtuais=true} (exige Java 21) o servidor atende em threads virtuais; rodando o mesmo número de
+ * {@code clientes} nos dois modos, a comparação inclui o pico de threads de plataforma, de heap usado e de memória
+ * residente do processo durante a medição. Clientes e servidor dividem a JVM, mas os clientes são os mesmos nos dois
+ * modos.
+ * <p>
+ * Com {@code reativo=true} a busca e o saldo vão para a API WebFlux sobre R2DBC ({@code financas.reativo.*}), e as
+ * escritas continuam no Tomcat. Com o H2 o driver R2DBC bloqueia por baixo; para comparar latências de verdade, aponte
+ * a aplicação para o PostgreSQL pelas variáveis de ambiente {@code SPRING_DATASOURCE_*} e
+ * {@code FINANCAS_REATIVO_R2DBC_URL}.
+ */
+public final class TesteCarga {
+
+    private static final int TAMANHO_LOTE_SEMEADURA = 5_000;
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(1);
+
+    private TesteCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ParametrosCarga parametros = ParametrosCarga.de(args);
+        // O restart do devtools relançaria o main sem os argumentos.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MinhasfinancasApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN",
+                        "financas.servidor.threads-virtuais=" + parametros.isThreadsVirtuais())
+                .properties(parametros.isReativo()
+                        ? new String[]{"financas.reativo.r2dbc.url=r2dbc:h2:mem:///db", "financas.reativo.porta=0"}
+                        : new String[0])
+                .run();
+        try {
+            long[] idsUsuarios = semear(context, parametros);
+            TokenService tokenService = context.getBean(TokenService.class);
+            String[] tokens = new String[idsUsuarios.length];
+            Map<Long, Integer> indicesUsuarios = new HashMap<>();
+            for (int u = 0; u < idsUsuarios.length; u++) {
+                tokens[u] = tokenService.gerarToken(idsUsuarios[u]);
+                indicesUsuarios.put(idsUsuarios[u], u);
+            }
+            List<Map<String, Object>> lancamentos = context.getBean(JdbcTemplate.class)
+                    .queryForList("select id, id_usuario from financas.lancamento");
+            long[] idsLancamentos = new long[lancamentos.size()];
+            int[] donosLancamentos = new int[lancamentos.size()];
+            for (int i = 0; i < idsLancamentos.length; i++) {
+                idsLancamentos[i] = ((Number) lancamentos.get(i).get("id")).longValue();
+                donosLancamentos[i] = indicesUsuarios.get(((Number) lancamentos.get(i).get("id_usuario")).longValue());
+            }
+            int porta = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            int portaLeitura = parametros.isReativo() ? context.getBean(ServidorReativo.class).getPorta() : porta;
+            HttpClient.Builder construtorHttp = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1);
+            ExecutorService clientes = executorVirtual();
+            if (clientes != null) {
+                construtorHttp.executor(executorVirtual());
+            } else {
+                clientes = Executors.newFixedThreadPool(parametros.getClientes());
+            }
+            ClienteCarga cliente = new ClienteCarga(construtorHttp.build(), porta, portaLeitura, idsUsuarios, tokens,
+                    idsLancamentos, donosLancamentos);
+
+            Map<String, Object> relatorio = executar(cliente, clientes, parametros);
+            gravarRelatorio(relatorio, parametros);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static long[] semear(ConfigurableApplicationContext context, ParametrosCarga parametros) {
+        UsuarioService usuarioService = context.getBean(UsuarioService.class);
+        LancamentoService lancamentoService = context.getBean(LancamentoService.class);
+        long inicio = System.nanoTime();
+        long[] idsUsuarios = new long[parametros.getUsuarios()];
+        for (int u = 0; u < idsUsuarios.length; u++) {
+            Usuario usuario = usuarioService.salvarUsuario(Usuario.builder()
+                    .nome("Carga " + u)
+                    .email("carga" + u + "@email.com")
+                    .senha("senha")
+                    .build());
+            idsUsuarios[u] = usuario.getId();
+            for (int inicioLote = 0; inicioLote < parametros.getLancamentosPorUsuario(); inicioLote += TAMANHO_LOTE_SEMEADURA) {
+                int fimLote = Math.min(inicioLote + TAMANHO_LOTE_SEMEADURA, parametros.getLancamentosPorUsuario());
+                List<Lancamento> lancamentos = new ArrayList<>(fimLote - inicioLote);
+                for (int i = inicioLote; i < fimLote; i++) {
+                    lancamentos.add(Lancamento.builder()
+                            .descricao((i % 10 == 0 ? "Conta de luz " : "Lançamento ") + i)
+                            .mes(i % 12 + 1)
+                            .ano(2015 + i % 10)
+                            .valor(BigDecimal.valueOf(i % 100_000 + 1, 2))
+                            .usuario(usuario)
+                            .dataCadastro(LocalDate.now())
+                            .tipoLancamento(i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA)
+                            .statusLancamento(i % 2 == 0 ? StatusLancamento.EFETIVADO : StatusLancamento.PENDENTE)
+                            .build());
+                }
+                lancamentoService.importarLancamentos(lancamentos);
+            }
+        }
+        System.out.printf("Massa semeada: %d usuários x %d lançamentos em %d ms%n", parametros.getUsuarios(),
+                parametros.getLancamentosPorUsuario(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        return idsUsuarios;
+    }
+
+    private static Map<String, Object> executar(ClienteCarga cliente, ExecutorService clientes, ParametrosCarga parametros)
+            throws InterruptedException {
+        Operacao[] operacoes = Operacao.values();
+        int[] pesosAcumulados = new int[operacoes.length];
+        int pesoTotal = 0;
+        for (int i = 0; i < operacoes.length; i++) {
+            pesoTotal += operacoes[i].peso(parametros);
+            pesosAcumulados[i] = pesoTotal;
+        }
+        if (pesoTotal <= 0) {
+            throw new IllegalArgumentException("Informe ao menos um peso positivo.");
+        }
+        Map<Operacao, Recorder> latencias = new EnumMap<>(Operacao.class);
+        Map<Operacao, LongAdder> erros = new EnumMap<>(Operacao.class);
+        for (Operacao operacao : operacoes) {
+            latencias.put(operacao, new Recorder(LATENCIA_MAXIMA_US, 3));
+            erros.put(operacao, new LongAdder());
+        }
+
+        long inicio = System.nanoTime();
+        long fimAquecimento = inicio + TimeUnit.SECONDS.toNanos(parametros.getAquecimentoSegundos());
+        long fim = fimAquecimento + TimeUnit.SECONDS.toNanos(parametros.getDuracaoSegundos());
+        int totalPesos = pesoTotal;
+        for (int c = 0; c < parametros.getClientes(); c++) {
+            clientes.execute(() -> {
+                while (System.nanoTime() < fim) {
+                    int sorteio = ThreadLocalRandom.current().nextInt(totalPesos);
+                    int indice = 0;
+                    while (sorteio >= pesosAcumulados[indice]) {
+                        indice++;
+                    }
+                    Operacao operacao = operacoes[indice];
+                    long inicioRequisicao = System.nanoTime();
+                    boolean sucesso;
+                    try {
+                        int status = cliente.executar(operacao);
+                        sucesso = status >= 200 && status < 300;
+                    } catch (Exception e) {
+                        sucesso = false;
+                    }
+                    long duracaoUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicioRequisicao);
+                    latencias.get(operacao).recordValue(Math.min(duracaoUs, LATENCIA_MAXIMA_US));
+                    if (!sucesso) {
+                        erros.get(operacao).increment();
+                    }
+                }
+            });
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(fimAquecimento - System.nanoTime(), 0));
+        for (Operacao operacao : operacoes) {
+            latencias.get(operacao).reset();
+            erros.get(operacao).reset();
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        AtomicLong picoHeap = new AtomicLong();
+        AtomicLong picoRss = new AtomicLong(-1);
+        threads.resetPeakThreadCount();
+        ScheduledExecutorService amostrador = Executors.newSingleThreadScheduledExecutor();
+        amostrador.scheduleAtFixedRate(() -> {
+            picoHeap.accumulateAndGet(memoria.getHeapMemoryUsage().getUsed(), Math::max);
+            picoRss.accumulateAndGet(rssBytes(), Math::max);
+        }, 0, 100, TimeUnit.MILLISECONDS);
+        long inicioMedicao = System.nanoTime();
+        clientes.shutdown();
+        clientes.awaitTermination(parametros.getDuracaoSegundos() + 60L, TimeUnit.SECONDS);
+        double segundos = (System.nanoTime() - inicioMedicao) / 1e9;
+        amostrador.shutdownNow();
+
+        Map<String, Object> resultados = new LinkedHashMap<>();
+        Histogram total = new Histogram(LATENCIA_MAXIMA_US, 3);
+        long totalErros = 0;
+        PrintStream saida = System.out;
+        saida.printf("%n%-8s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operacao", "requisicoes", "erros", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operacao operacao : operacoes) {
+            Histogram histograma = latencias.get(operacao).getIntervalHistogram();
+            long errosOperacao = erros.get(operacao).sum();
+            total.add(histograma);
+            totalErros += errosOperacao;
+            resultados.put(operacao.name(), resumir(histograma, errosOperacao, segundos));
+            imprimir(saida, operacao.name(), histograma, errosOperacao, segundos);
+            gravarDistribuicao(histograma, parametros, operacao.name());
+        }
+        imprimir(saida, "TOTAL", total, totalErros, segundos);
+
+        Map<String, Object> usoMemoria = new LinkedHashMap<>();
+        usoMemoria.put("threadsVirtuais", parametros.isThreadsVirtuais());
+        usoMemoria.put("reativo", parametros.isReativo());
+        usoMemoria.put("picoThreadsPlataforma", threads.getPeakThreadCount());
+        usoMemoria.put("picoHeapUsadoMb", picoHeap.get() >> 20);
+        usoMemoria.put("picoRssMb", picoRss.get() < 0 ? -1 : picoRss.get() >> 20);
+        saida.printf("%nthreads virtuais: %s, reativo: %s, pico de threads de plataforma: %d, pico de heap usado: %d MB, pico de RSS: %d MB%n",
+                usoMemoria.get("threadsVirtuais"), usoMemoria.get("reativo"), usoMemoria.get("picoThreadsPlataforma"),
+                usoMemoria.get("picoHeapUsadoMb"), usoMemoria.get("picoRssMb"));
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("dataHora", OffsetDateTime.now().toString());
+        relatorio.put("parametros", parametros);
+        relatorio.put("segundosMedidos", segundos);
+        relatorio.put("total", resumir(total, totalErros, segundos));
+        relatorio.put("operacoes", resultados);
+        relatorio.put("memoria", usoMemoria);
+        return relatorio;
+    }
+
+    /**
+     * Memória residente do processo, lida de {@code /proc/self/status}; -1 fora do Linux.
+     */
+    private static long rssBytes() {
+        try {
+            return Files.readAllLines(Paths.get("/proc/self/status")).stream()
+                    .filter(linha -> linha.startsWith("VmRSS:"))
+                    .mapToLong(linha -> Long.parseLong(linha.replaceAll("\\D", "")) * 1024)
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * No Java 21 os clientes e o {@link HttpClient} rodam em threads virtuais, para que as threads de plataforma
+     * medidas sejam as do servidor; antes disso, devolve {@code null}.
+     */
+    private static ExecutorService executorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, Object> resumir(Histogram histograma, long erros, double segundos) {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("requisicoes", histograma.getTotalCount());
+        resumo.put("erros", erros);
+        resumo.put("vazaoPorSegundo", histograma.getTotalCount() / segundos);
+        resumo.put("mediaMs", histograma.getMean() / 1000.0);
+        resumo.put("p50Ms", percentilMs(histograma, 50));
+        resumo.put("p90Ms", percentilMs(histograma, 90));
+        resumo.put("p99Ms", percentilMs(histograma, 99));
+        resumo.put("p999Ms", percentilMs(histograma, 99.9));
+        resumo.put("maxMs", histograma.getMaxValue() / 1000.0);
+        return resumo;
+    }
+
+    private static void imprimir(PrintStream saida, String nome, Histogram histograma, long erros, double segundos) {
+        saida.printf("%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", nome, histograma.getTotalCount(), erros,
+                histograma.getTotalCount() / segundos, percentilMs(histograma, 50), percentilMs(histograma, 90),
+                percentilMs(histograma, 99), percentilMs(histograma, 99.9), histograma.getMaxValue() / 1000.0);
+    }
+
+    private static double percentilMs(Histogram histograma, double percentil) {
+        return histograma.getValueAtPercentile(percentil) / 1000.0;
+    }
+
+    private static void gravarDistribuicao(Histogram histograma, ParametrosCarga parametros, String nome) {
+        File arquivo = new File(new File(parametros.getRelatorio()).getAbsoluteFile().getParentFile(), nome.toLowerCase() + ".hgrm");
+        arquivo.getParentFile().mkdirs();
+        try (PrintStream saida = new PrintStream(arquivo)) {
+            histograma.outputPercentileDistribution(saida, 1000.0);
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao gravar " + arquivo, e);
+        }
+    }
+
+    private static void gravarRelatorio(Map<String, Object> relatorio, ParametrosCarga parametros) throws Exception {
+        File arquivo = new File(parametros.getRelatorio()).getAbsoluteFile();
+        arquivo.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo, relatorio);
+        System.out.println("Relatório gravado em " + arquivo);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ratacheski.minhasfinancas;
+
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Massa de dados determinística compartilhada pelos benchmarks.
+ */
+public final class DadosBenchmark {
+
+    private DadosBenchmark() {
+    }
+
+    public static Usuario usuario(Long id) {
+        return Usuario.builder()
+                .id(id)
+                .nome("Usuário " + id)
+                .email("usuario" + id + "@email.com")
+                .senha("senha")
+                .build();
+    }
+
+    public static List<Lancamento> lancamentos(int quantidade, Usuario usuario) {
+        List<Lancamento> lancamentos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            lancamentos.add(Lancamento.builder()
+                    .descricao((i % 10 == 0 ? "Conta de luz " : "Lançamento ") + i)
+                    .mes(i % 12 + 1)
+                    .ano(2015 + i % 10)
+                    .valor(BigDecimal.valueOf(i % 1000 + 1, 2))
+                    .usuario(usuario)
+                    .dataCadastro(LocalDate.of(2020, 1, 1))
+                    .tipoLancamento(i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA)
+                    .statusLancamento(i % 2 == 0 ? StatusLancamento.EFETIVADO : StatusLancamento.PENDENTE)
+                    .build());
+        }
+        return lancamentos;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ratacheski.minhasfinancas.DadosBenchmark;
+import com.ratacheski.minhasfinancas.api.dto.LancamentoDTO;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões entre entidade, projeção e DTO feitas pelo {@link LancamentoResource} e a serialização Jackson de
+ * {@link Lancamento} com o {@link Usuario} embutido, como nas respostas que devolvem a entidade.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LancamentoResourceBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int quantidade;
+
+    LancamentoResource resource;
+    ObjectMapper objectMapper;
+    Usuario usuario;
+    List<Lancamento> lancamentos;
+    List<LancamentoProjecao> projecoes;
+    List<LancamentoDTO> dtos;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        resource = new LancamentoResource(null, objectMapper);
+        usuario = DadosBenchmark.usuario(1L);
+        lancamentos = DadosBenchmark.lancamentos(quantidade, usuario);
+        projecoes = new ArrayList<>(quantidade);
+        dtos = new ArrayList<>(quantidade);
+        long id = 0;
+        for (Lancamento lancamento : lancamentos) {
+            lancamento.setId(++id);
+            projecoes.add(new LancamentoProjecao(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(),
+                    lancamento.getAno(), lancamento.getValor(), usuario.getId(), lancamento.getTipoLancamento(),
+                    lancamento.getStatusLancamento(), lancamento.getVersao()));
+            dtos.add(LancamentoResource.converteLancamentoParaLancamentoDTO(lancamento));
+        }
+    }
+
+    @Benchmark
+    public List<LancamentoDTO> converterLancamentoParaDTO() {
+        List<LancamentoDTO> convertidos = new ArrayList<>(quantidade);
+        for (Lancamento lancamento : lancamentos) {
+            convertidos.add(LancamentoResource.converteLancamentoParaLancamentoDTO(lancamento));
+        }
+        return convertidos;
+    }
+
+    @Benchmark
+    public List<LancamentoDTO> converterProjecaoParaDTO() {
+        List<LancamentoDTO> convertidos = new ArrayList<>(quantidade);
+        for (LancamentoProjecao projecao : projecoes) {
+            convertidos.add(LancamentoResource.converteProjecaoParaLancamentoDTO(projecao));
+        }
+        return convertidos;
+    }
+
+    @Benchmark
+    public List<Lancamento> converterDTOParaLancamento() {
+        List<Lancamento> convertidos = new ArrayList<>(quantidade);
+        for (LancamentoDTO dto : dtos) {
+            convertidos.add(resource.converteLancamentoDTOParaLancamento(dto, usuario));
+        }
+        return convertidos;
+    }
+
+    @Benchmark
+    public byte[] serializarLancamentosComUsuario() throws Exception {
+        return objectMapper.writeValueAsBytes(lancamentos);
+    }
+
+    @Benchmark
+    public byte[] serializarDTOs() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
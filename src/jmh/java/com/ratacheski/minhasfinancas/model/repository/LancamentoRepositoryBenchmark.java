@@ -0,0 +1,77 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.DadosBenchmark;
+import com.ratacheski.minhasfinancas.MinhasfinancasApplication;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de saldo e filtro sobre o H2 do perfil de teste, com o esquema criado pelas migrações.
+ * A base é populada uma vez por fork com {@code quantidade} lançamentos de um mesmo usuário. A aplicação sobe com o
+ * servidor web em porta aleatória porque a configuração MVC ({@code @EnableWebMvc}) exige um contexto servlet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LancamentoRepositoryBenchmark {
+
+    @Param({"1000", "10000"})
+    int quantidade;
+
+    ConfigurableApplicationContext context;
+    LancamentoRepository lancamentoRepository;
+    LancamentoService lancamentoService;
+    Long idUsuario;
+    Lancamento filtro;
+
+    @Setup
+    public void preparar() {
+        context = new SpringApplicationBuilder(MinhasfinancasApplication.class)
+                .profiles("test")
+                .properties("server.port=0")
+                .run();
+        lancamentoRepository = context.getBean(LancamentoRepository.class);
+        lancamentoService = context.getBean(LancamentoService.class);
+        Usuario usuario = context.getBean(UsuarioRepository.class).save(DadosBenchmark.usuario(null));
+        idUsuario = usuario.getId();
+        lancamentoService.importarLancamentos(DadosBenchmark.lancamentos(quantidade, usuario));
+
+        filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        filtro.setDescricao("luz");
+    }
+
+    @TearDown
+    public void encerrar() {
+        context.close();
+    }
+
+    @Benchmark
+    public BigDecimal obterSaldoPorTipoLancamentoEUsuarioEStatus() {
+        return lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(idUsuario, TipoLancamento.RECEITA,
+                StatusLancamento.EFETIVADO);
+    }
+
+    @Benchmark
+    public List<Lancamento> buscarPorExemplo() {
+        return lancamentoService.buscarLancamentos(filtro);
+    }
+
+    @Benchmark
+    public BigDecimal obterSaldoPorUsuario() {
+        return lancamentoService.obterSaldoPorUsuario(idUsuario);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ratacheski.minhasfinancas.service.bean;
+
+import com.ratacheski.minhasfinancas.DadosBenchmark;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do login ({@link UsuarioServiceBean#autenticarUsuario} com BCrypt no executor de hash, mais a emissão do token)
+ * comparada à validação do token, que é o que cada requisição autenticada paga. A base é substituída por um repositório
+ * em memória para medir só o custo de CPU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class AutenticacaoBenchmark {
+
+    @Param({"10", "12"})
+    int custoBcrypt;
+
+    UsuarioServiceBean usuarioService;
+    TokenServiceBean tokenService;
+    String token;
+
+    @Setup
+    public void preparar() {
+        Usuario usuario = DadosBenchmark.usuario(1L);
+        usuario.setSenha(new BCryptPasswordEncoder(custoBcrypt).encode(usuario.getSenha()));
+        UsuarioRepository usuarioRepository = (UsuarioRepository) Proxy.newProxyInstance(
+                UsuarioRepository.class.getClassLoader(), new Class<?>[]{UsuarioRepository.class},
+                (proxy, metodo, argumentos) -> metodo.getName().equals("findByEmail") ? Optional.of(usuario) : null);
+        usuarioService = new UsuarioServiceBean(usuarioRepository, custoBcrypt, 0, 1024, 1);
+        tokenService = new TokenServiceBean("segredo-do-benchmark", TimeUnit.HOURS.toMillis(8));
+        token = tokenService.gerarToken(usuario.getId());
+    }
+
+    @TearDown
+    public void encerrar() {
+        usuarioService.encerrar();
+    }
+
+    @Benchmark
+    public String autenticar() {
+        Usuario usuario = usuarioService.autenticarUsuario("usuario1@email.com", "senha").join();
+        return tokenService.gerarToken(usuario.getId());
+    }
+
+    @Benchmark
+    public Optional<Long> validarToken() {
+        return tokenService.validarToken(token);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ratacheski.minhasfinancas.service.bean;
+
+import com.ratacheski.minhasfinancas.DadosBenchmark;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de {@link LancamentoServiceBean#validarLancamento(Lancamento)}, chamada por lançamento em toda escrita.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoLancamentoBenchmark {
+
+    @Param({"1", "1000"})
+    int quantidade;
+
+    LancamentoServiceBean lancamentoService;
+    List<Lancamento> lancamentos;
+
+    @Setup
+    public void preparar() {
+        lancamentoService = new LancamentoServiceBean(null, null, null, null);
+        lancamentos = DadosBenchmark.lancamentos(quantidade, DadosBenchmark.usuario(1L));
+    }
+
+    @Benchmark
+    public void validarLancamentos(Blackhole blackhole) {
+        for (Lancamento lancamento : lancamentos) {
+            lancamentoService.validarLancamento(lancamento);
+        }
+        blackhole.consume(lancamentos);
+    }
+}
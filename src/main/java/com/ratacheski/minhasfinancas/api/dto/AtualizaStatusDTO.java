@@ -9,4 +9,5 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class AtualizaStatusDTO {
     private String status;
+    private Long versao;
 }
@@ -0,0 +1,16 @@
+package com.ratacheski.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoDTO {
+    private int quantidade;
+    private long duracaoMs;
+    private long linhasPorSegundo;
+}
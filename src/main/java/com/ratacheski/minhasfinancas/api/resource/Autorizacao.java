@@ -0,0 +1,25 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Cada usuário só acessa os próprios dados. O id autenticado vem do token, no atributo
+ * {@link com.ratacheski.minhasfinancas.service.TokenService#ATRIBUTO_ID_USUARIO}; um id de usuário enviado na
+ * requisição é opcional e, quando presente, precisa ser o mesmo.
+ */
+final class Autorizacao {
+
+    static final String MENSAGEM_ACESSO_NEGADO = "Acesso negado aos dados de outro usuário.";
+
+    private Autorizacao() {
+    }
+
+    static boolean permitido(Long idAutenticado, Long idInformado) {
+        return idInformado == null || idInformado.equals(idAutenticado);
+    }
+
+    static ResponseEntity negado() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(MENSAGEM_ACESSO_NEGADO);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import com.ratacheski.minhasfinancas.api.dto.LancamentoDTO;
+import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class LancamentoCsv {
+
+    static final String CABECALHO = "id,descricao,mes,ano,valor,usuario,tipo,status,data_cadastro\n";
+
+    private LancamentoCsv() {
+    }
+
+    static void escrever(Writer writer, Lancamento lancamento) {
+        try {
+            writer.write(lancamento.getId() + "," + valor(lancamento.getDescricao()) + "," + lancamento.getMes() + ","
+                    + lancamento.getAno() + "," + lancamento.getValor().toPlainString() + "," + lancamento.getUsuario().getId() + ","
+                    + lancamento.getTipoLancamento() + "," + lancamento.getStatusLancamento() + "," + lancamento.getDataCadastro() + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<LancamentoDTO> ler(String csv) {
+        List<List<String>> linhas = separar(csv);
+        if (linhas.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> cabecalho = linhas.get(0);
+        int descricao = coluna(cabecalho, "descricao");
+        int mes = coluna(cabecalho, "mes");
+        int ano = coluna(cabecalho, "ano");
+        int valor = coluna(cabecalho, "valor");
+        int tipo = coluna(cabecalho, "tipo");
+        int status = cabecalho.indexOf("status");
+
+        List<LancamentoDTO> lancamentos = new ArrayList<>(linhas.size() - 1);
+        for (int i = 1; i < linhas.size(); i++) {
+            List<String> campos = linhas.get(i);
+            if (campos.size() != cabecalho.size()) {
+                throw new RegraNegocioException("Linha " + (i + 1) + ": quantidade de colunas diferente do cabeçalho.");
+            }
+            try {
+                lancamentos.add(LancamentoDTO.builder()
+                        .descricao(campos.get(descricao))
+                        .mes(Integer.valueOf(campos.get(mes)))
+                        .ano(Integer.valueOf(campos.get(ano)))
+                        .valor(new BigDecimal(campos.get(valor)))
+                        .tipo(campos.get(tipo))
+                        .status(status < 0 || campos.get(status).isEmpty() ? null : campos.get(status))
+                        .build());
+            } catch (NumberFormatException e) {
+                throw new RegraNegocioException("Linha " + (i + 1) + ": valor numérico inválido.");
+            }
+        }
+        return lancamentos;
+    }
+
+    private static int coluna(List<String> cabecalho, String nome) {
+        int indice = cabecalho.indexOf(nome);
+        if (indice < 0) {
+            throw new RegraNegocioException("Coluna obrigatória ausente no CSV: " + nome + ".");
+        }
+        return indice;
+    }
+
+    private static List<List<String>> separar(String csv) {
+        List<List<String>> linhas = new ArrayList<>();
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                adicionarLinha(linhas, campos);
+                campos = new ArrayList<>();
+            } else if (c != '\r') {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        adicionarLinha(linhas, campos);
+        return linhas;
+    }
+
+    private static void adicionarLinha(List<List<String>> linhas, List<String> campos) {
+        if (!campos.equals(Arrays.asList(""))) {
+            linhas.add(campos);
+        }
+    }
+
+    private static String valor(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(",") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+}
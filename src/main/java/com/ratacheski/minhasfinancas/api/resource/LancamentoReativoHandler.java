@@ -0,0 +1,202 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ratacheski.minhasfinancas.api.dto.LancamentoDTO;
+import com.ratacheski.minhasfinancas.api.dto.PaginaDTO;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import com.ratacheski.minhasfinancas.model.repository.ChaveLancamento;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoReativoRepository;
+import com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioReativoRepository;
+import com.ratacheski.minhasfinancas.service.TokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versão reativa das leituras de {@link LancamentoResource} e do saldo de {@link UsuarioResource}, com as mesmas rotas,
+ * parâmetros e respostas. Nenhuma thread fica bloqueada esperando o banco: na exportação o cursor só avança quando a
+ * conexão HTTP aceita mais dados. O usuário vem do token, como nos recursos bloqueantes.
+ */
+public class LancamentoReativoHandler {
+
+    private static final int LIMITE_PADRAO = 100;
+    private static final int LIMITE_MAXIMO = 1000;
+    private static final int TAMANHO_LOTE_EXPORTACAO = 500;
+
+    private final LancamentoReativoRepository lancamentoRepository;
+    private final SaldoUsuarioReativoRepository saldoUsuarioRepository;
+    private final ObjectWriter objectWriter;
+
+    public LancamentoReativoHandler(LancamentoReativoRepository lancamentoRepository,
+                                    SaldoUsuarioReativoRepository saldoUsuarioRepository,
+                                    ObjectMapper objectMapper) {
+        this.lancamentoRepository = lancamentoRepository;
+        this.saldoUsuarioRepository = saldoUsuarioRepository;
+        this.objectWriter = objectMapper.writerFor(LancamentoDTO.class);
+    }
+
+    public RouterFunction<ServerResponse> rotas() {
+        return RouterFunctions.route()
+                .GET("/api/lancamentos/exportar", this::exportar)
+                .GET("/api/lancamentos", this::buscar)
+                .GET("/api/usuarios/{id}/saldo", this::obterSaldo)
+                .build();
+    }
+
+    public Mono<ServerResponse> buscar(ServerRequest request) {
+        Long idUsuario = idAutenticado(request);
+        Long idInformado;
+        int limite;
+        try {
+            idInformado = request.queryParam("usuario").map(Long::valueOf).orElse(null);
+            limite = request.queryParam("limit").map(Integer::parseInt).orElse(LIMITE_PADRAO);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue("Informe o id do usuário e um limite numérico.");
+        }
+        if (idUsuario == null || !Autorizacao.permitido(idUsuario, idInformado)) {
+            return negado();
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            return ServerResponse.badRequest().bodyValue("Informe um limite entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+        ChaveLancamento chave;
+        try {
+            chave = LancamentoResource.decodificarCursor(request.queryParam("next").orElse(null));
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue("Cursor de paginação inválido.");
+        }
+
+        Lancamento lancamentoFiltro = new Lancamento();
+        try {
+            lancamentoFiltro.setDescricao(request.queryParam("descricao").orElse(null));
+            lancamentoFiltro.setMes(request.queryParam("mes").map(Integer::valueOf).orElse(null));
+            lancamentoFiltro.setAno(request.queryParam("ano").map(Integer::valueOf).orElse(null));
+            lancamentoFiltro.setTipoLancamento(request.queryParam("tipo").map(TipoLancamento::valueOf).orElse(null));
+            lancamentoFiltro.setStatusLancamento(request.queryParam("status").map(StatusLancamento::valueOf).orElse(null));
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue("Filtro de lançamento inválido.");
+        }
+        lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build());
+
+        return saldoUsuarioRepository.obterPorUsuario(idUsuario)
+                .flatMap(saldo -> {
+                    String etag = LancamentoResource.etagDaVersao(saldo.getVersao());
+                    if (naoModificado(request, etag)) {
+                        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    return lancamentoRepository.buscarAposChave(lancamentoFiltro, chave, limite).collectList()
+                            .flatMap(lancamentos -> ServerResponse.ok().eTag(etag).bodyValue(pagina(lancamentos, limite)));
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest()
+                        .bodyValue("Não foi possível realizar a consulta. Usuário não encontrado para o id informado.")));
+    }
+
+    public Mono<ServerResponse> obterSaldo(ServerRequest request) {
+        Long idUsuario;
+        try {
+            idUsuario = Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        if (!idUsuario.equals(idAutenticado(request))) {
+            return negado();
+        }
+        return saldoUsuarioRepository.obterPorUsuario(idUsuario)
+                .flatMap(saldo -> {
+                    String etag = LancamentoResource.etagDaVersao(saldo.getVersao());
+                    if (naoModificado(request, etag)) {
+                        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    return ServerResponse.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).bodyValue(saldo.getValor());
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    public Mono<ServerResponse> exportar(ServerRequest request) {
+        Long idUsuario = idAutenticado(request);
+        Long idInformado;
+        try {
+            idInformado = request.queryParam("usuario").map(Long::valueOf).orElse(null);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue("Informe o id do usuário.");
+        }
+        if (idUsuario == null || !Autorizacao.permitido(idUsuario, idInformado)) {
+            return negado();
+        }
+        String formato = request.queryParam("formato").orElse("ndjson");
+        return saldoUsuarioRepository.obterPorUsuario(idUsuario)
+                .flatMap(saldo -> {
+                    Flux<Lancamento> lancamentos = lancamentoRepository.percorrerPorUsuario(idUsuario, TAMANHO_LOTE_EXPORTACAO);
+                    if (formato.equalsIgnoreCase("csv")) {
+                        return ServerResponse.ok()
+                                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lancamentos-" + idUsuario + ".csv\"")
+                                .body(Flux.concat(Mono.just(LancamentoCsv.CABECALHO), lancamentos.map(this::linhaCsv)), String.class);
+                    }
+                    if (formato.equalsIgnoreCase("ndjson")) {
+                        return ServerResponse.ok()
+                                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                                .body(lancamentos.map(this::linhaJson), String.class);
+                    }
+                    return ServerResponse.badRequest().bodyValue("Formato de exportação inválido. Utilize ndjson ou csv.");
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest()
+                        .bodyValue("Não foi possível realizar a exportação. Usuário não encontrado para o id informado.")));
+    }
+
+    private static PaginaDTO<LancamentoDTO> pagina(List<LancamentoProjecao> lancamentos, int limite) {
+        boolean haProxima = lancamentos.size() > limite;
+        List<LancamentoProjecao> conteudo = haProxima ? lancamentos.subList(0, limite) : lancamentos;
+        List<LancamentoDTO> dtos = new ArrayList<>(conteudo.size());
+        for (LancamentoProjecao lancamento : conteudo) {
+            dtos.add(LancamentoResource.converteProjecaoParaLancamentoDTO(lancamento));
+        }
+        String proximo = haProxima ? LancamentoResource.codificarCursor(ChaveLancamento.de(conteudo.get(limite - 1))) : null;
+        return new PaginaDTO<>(dtos, proximo);
+    }
+
+    private static Long idAutenticado(ServerRequest request) {
+        return (Long) request.attribute(TokenService.ATRIBUTO_ID_USUARIO).orElse(null);
+    }
+
+    private static Mono<ServerResponse> negado() {
+        return ServerResponse.status(HttpStatus.FORBIDDEN).bodyValue(Autorizacao.MENSAGEM_ACESSO_NEGADO);
+    }
+
+    private static boolean naoModificado(ServerRequest request, String etag) {
+        List<String> ifNoneMatch = request.headers().asHttpHeaders().getIfNoneMatch();
+        return ifNoneMatch.contains(etag) || ifNoneMatch.contains("*");
+    }
+
+    private String linhaCsv(Lancamento lancamento) {
+        StringWriter writer = new StringWriter(128);
+        LancamentoCsv.escrever(writer, lancamento);
+        return writer.toString();
+    }
+
+    private String linhaJson(Lancamento lancamento) {
+        try {
+            return objectWriter.writeValueAsString(LancamentoResource.converteLancamentoParaLancamentoDTO(lancamento)) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
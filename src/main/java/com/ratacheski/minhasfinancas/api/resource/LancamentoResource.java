@@ -1,34 +1,64 @@
 package com.ratacheski.minhasfinancas.api.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.ratacheski.minhasfinancas.api.dto.AtualizaStatusDTO;
+import com.ratacheski.minhasfinancas.api.dto.ImportacaoDTO;
 import com.ratacheski.minhasfinancas.api.dto.LancamentoDTO;
+import com.ratacheski.minhasfinancas.api.dto.PaginaDTO;
+import com.ratacheski.minhasfinancas.exception.ConflitoVersaoException;
 import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
 import com.ratacheski.minhasfinancas.model.entity.Lancamento;
 import com.ratacheski.minhasfinancas.model.entity.Usuario;
 import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
 import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import com.ratacheski.minhasfinancas.model.repository.ChaveLancamento;
 import com.ratacheski.minhasfinancas.service.LancamentoService;
-import com.ratacheski.minhasfinancas.service.UsuarioService;
+import com.ratacheski.minhasfinancas.service.TokenService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/lancamentos")
 @RequiredArgsConstructor
 public class LancamentoResource {
 
+    private static final int LIMITE_PADRAO = 100;
+    private static final int LIMITE_MAXIMO = 1000;
+    private static final int MAXIMO_IMPORTACAO = 50_000;
+
     private final LancamentoService lancamentoService;
-    private final UsuarioService usuarioService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity salvar(@RequestBody LancamentoDTO dto) {
+    public ResponseEntity salvar(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                 @RequestBody LancamentoDTO dto) {
+        if (!Autorizacao.permitido(idAutenticado, dto.getUsuario())) {
+            return Autorizacao.negado();
+        }
         try {
-            Lancamento lancamento = converteLancamentoDTOParaLancamento(dto);
+            Lancamento lancamento = converteLancamentoDTOParaLancamento(dto, usuario(idAutenticado));
             lancamento = lancamentoService.salvarLancamento(lancamento);
             return new ResponseEntity(lancamento, HttpStatus.CREATED);
         } catch (RegraNegocioException e) {
@@ -36,14 +66,93 @@ public class LancamentoResource {
         }
     }
 
+    @PostMapping("/parcelado")
+    public ResponseEntity salvarParcelado(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                          @RequestParam("parcelas") int parcelas, @RequestBody LancamentoDTO dto) {
+        return salvarSerie(idAutenticado, dto, lancamento -> lancamentoService.salvarParcelado(lancamento, parcelas));
+    }
+
+    @PostMapping("/recorrente")
+    public ResponseEntity salvarRecorrente(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                           @RequestParam("meses") int meses, @RequestBody LancamentoDTO dto) {
+        return salvarSerie(idAutenticado, dto, lancamento -> lancamentoService.salvarRecorrente(lancamento, meses));
+    }
+
+    private ResponseEntity salvarSerie(Long idAutenticado, LancamentoDTO dto, Function<Lancamento, List<Lancamento>> gravacao) {
+        if (!Autorizacao.permitido(idAutenticado, dto.getUsuario())) {
+            return Autorizacao.negado();
+        }
+        try {
+            List<Lancamento> lancamentos = gravacao.apply(converteLancamentoDTOParaLancamento(dto, usuario(idAutenticado)));
+            List<LancamentoDTO> conteudo = new ArrayList<>(lancamentos.size());
+            for (Lancamento lancamento : lancamentos) {
+                conteudo.add(converteLancamentoParaLancamentoDTO(lancamento));
+            }
+            return new ResponseEntity(conteudo, HttpStatus.CREATED);
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity importar(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                   @RequestParam(value = "usuario", required = false) Long idUsuario,
+                                   @RequestBody List<LancamentoDTO> dtos) {
+        return importarLancamentos(idAutenticado, idUsuario, () -> dtos);
+    }
+
+    @PostMapping(value = "/importar", consumes = "text/csv")
+    public ResponseEntity importarCsv(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                      @RequestParam(value = "usuario", required = false) Long idUsuario,
+                                      @RequestBody String csv) {
+        return importarLancamentos(idAutenticado, idUsuario, () -> LancamentoCsv.ler(csv));
+    }
+
+    private ResponseEntity importarLancamentos(Long idAutenticado, Long idUsuario, Supplier<List<LancamentoDTO>> leitor) {
+        if (!Autorizacao.permitido(idAutenticado, idUsuario)) {
+            return Autorizacao.negado();
+        }
+        try {
+            Usuario usuario = usuario(idAutenticado);
+            List<LancamentoDTO> dtos = leitor.get();
+            if (dtos.isEmpty() || dtos.size() > MAXIMO_IMPORTACAO) {
+                return ResponseEntity.badRequest().body("Informe entre 1 e " + MAXIMO_IMPORTACAO + " lançamentos por importação.");
+            }
+            List<Lancamento> lancamentos = new ArrayList<>(dtos.size());
+            for (LancamentoDTO dto : dtos) {
+                lancamentos.add(converteLancamentoDTOParaLancamento(dto, usuario));
+            }
+            long inicio = System.nanoTime();
+            int quantidade = lancamentoService.importarLancamentos(lancamentos);
+            long duracao = Math.max(System.nanoTime() - inicio, 1);
+            ImportacaoDTO importacao = ImportacaoDTO.builder()
+                    .quantidade(quantidade)
+                    .duracaoMs(TimeUnit.NANOSECONDS.toMillis(duracao))
+                    .linhasPorSegundo(quantidade * TimeUnit.SECONDS.toNanos(1) / duracao)
+                    .build();
+            return new ResponseEntity(importacao, HttpStatus.CREATED);
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Tipo ou status de lançamento inválido.");
+        }
+    }
+
     @PutMapping("{id}")
-    public ResponseEntity atualizar(@PathVariable("id") Long idLancamento, @RequestBody LancamentoDTO dto) {
+    public ResponseEntity atualizar(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                    @PathVariable("id") Long idLancamento, @RequestBody LancamentoDTO dto) {
         return lancamentoService.obterPorId(idLancamento).map(entidade -> {
+            if (!Autorizacao.permitido(idAutenticado, idUsuario(entidade))
+                    || !Autorizacao.permitido(idAutenticado, dto.getUsuario())) {
+                return Autorizacao.negado();
+            }
             try {
-                Lancamento lancamento = converteLancamentoDTOParaLancamento(dto);
+                Lancamento lancamento = converteLancamentoDTOParaLancamento(dto, usuario(idAutenticado));
                 lancamento.setId(entidade.getId());
-                lancamentoService.atualizarLancamento(lancamento);
+                lancamento.setVersao(lancamentoService.atualizarLancamento(lancamento).getVersao());
                 return ResponseEntity.ok(lancamento);
+            } catch (ConflitoVersaoException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
             } catch (RegraNegocioException e) {
                 return ResponseEntity.badRequest().body(e.getMessage());
             }
@@ -51,38 +160,134 @@ public class LancamentoResource {
                 new ResponseEntity("Lançamento não encontrado na base de dados.", HttpStatus.BAD_REQUEST));
     }
 
+    /**
+     * Altera só os campos enviados, em um único UPDATE condicionado à {@code versao} obtida na consulta do lançamento.
+     * O usuário dono do lançamento não é alterado por aqui.
+     */
+    @PatchMapping("{id}")
+    public ResponseEntity atualizarParcialmente(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                                @PathVariable("id") Long idLancamento, @RequestBody LancamentoDTO dto) {
+        if (dto.getVersao() == null) {
+            return ResponseEntity.badRequest().body("Informe a versão do lançamento.");
+        }
+        try {
+            Lancamento alteracoes = converteLancamentoDTOParaLancamento(dto, null);
+            return atualizarParcialmente(idAutenticado, idLancamento, dto.getVersao(), alteracoes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Envie um tipo e um status de lançamento válidos.");
+        }
+    }
+
     @PutMapping("{id}/atualiza-status")
-    public ResponseEntity atualizarStatus(@PathVariable("id") Long idLancamento, @RequestBody AtualizaStatusDTO dto) {
-        return lancamentoService.obterPorId(idLancamento).map(lancamento -> {
+    public ResponseEntity atualizarStatus(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                          @PathVariable("id") Long idLancamento, @RequestBody AtualizaStatusDTO dto) {
+        StatusLancamento statusLancamento;
+        try {
+            statusLancamento = StatusLancamento.valueOf(dto.getStatus());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return ResponseEntity.badRequest().body("Não foi possível atualizar o status lançado. Envie um status Válido.");
+        }
+        return atualizarParcialmente(idAutenticado, idLancamento, dto.getVersao(),
+                Lancamento.builder().statusLancamento(statusLancamento).build());
+    }
+
+    /**
+     * O dono é conferido no próprio UPDATE condicional; lançamento de outro usuário responde como inexistente.
+     */
+    private ResponseEntity atualizarParcialmente(Long idAutenticado, Long idLancamento, Long versao, Lancamento alteracoes) {
+        try {
+            return lancamentoService.atualizarParcialmente(idLancamento, idAutenticado, versao, alteracoes)
+                    .<ResponseEntity>map(lancamento -> ResponseEntity.ok(converteLancamentoParaLancamentoDTO(lancamento)))
+                    .orElseGet(() -> new ResponseEntity<>("Lançamento não encontrado na base de dados.", HttpStatus.NOT_FOUND));
+        } catch (ConflitoVersaoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/atualiza-status")
+    public ResponseEntity atualizarStatusEmLote(
+            @RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "ids", required = false) List<Long> ids,
+            @RequestParam(value = "mes", required = false) Integer mes,
+            @RequestParam(value = "ano", required = false) Integer ano,
+            @RequestParam(value = "tipo", required = false) String tipoLancamento,
+            @RequestParam(value = "statusAtual", required = false) String statusAtual,
+            @RequestBody AtualizaStatusDTO dto) {
+        if (dto.getStatus() == null) {
+            return ResponseEntity.badRequest().body("Não foi possível atualizar o status lançado. Envie um status Válido.");
+        }
+        if (!Autorizacao.permitido(idAutenticado, idUsuario)) {
+            return Autorizacao.negado();
+        }
+        try {
+            Lancamento lancamentoFiltro = criarFiltroEmLote(idAutenticado, mes, ano, tipoLancamento, statusAtual);
             StatusLancamento statusLancamento = StatusLancamento.valueOf(dto.getStatus());
-            if (statusLancamento == null) {
-                return ResponseEntity.badRequest().body("Não foi possível atualizar o status lançado. Envie um status Válido.");
-            } else {
-                try {
-                    lancamento.setStatusLancamento(statusLancamento);
-                    lancamentoService.atualizarLancamento(lancamento);
-                    return ResponseEntity.ok(lancamento);
-                } catch (RegraNegocioException e) {
-                    return ResponseEntity.badRequest().body(e.getMessage());
-                }
-            }
+            int atualizados = lancamentoService.atualizarStatusEmLote(lancamentoFiltro, ids, statusLancamento);
+            return ResponseEntity.ok(atualizados);
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Não foi possível atualizar o status lançado. Envie um status Válido.");
+        }
+    }
 
-        }).orElseGet(() ->
-                new ResponseEntity<>("Lançamento não encontrado na base de dados.", HttpStatus.BAD_REQUEST));
+    @DeleteMapping
+    public ResponseEntity removerEmLote(
+            @RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "ids", required = false) List<Long> ids,
+            @RequestParam(value = "mes", required = false) Integer mes,
+            @RequestParam(value = "ano", required = false) Integer ano,
+            @RequestParam(value = "tipo", required = false) String tipoLancamento,
+            @RequestParam(value = "status", required = false) String statusLancamento) {
+        if (!Autorizacao.permitido(idAutenticado, idUsuario)) {
+            return Autorizacao.negado();
+        }
+        try {
+            Lancamento lancamentoFiltro = criarFiltroEmLote(idAutenticado, mes, ano, tipoLancamento, statusLancamento);
+            int removidos = lancamentoService.removerEmLote(lancamentoFiltro, ids);
+            return ResponseEntity.ok(removidos);
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Tipo ou status de lançamento inválido.");
+        }
+    }
+
+    private Lancamento criarFiltroEmLote(Long idUsuario, Integer mes, Integer ano, String tipoLancamento, String statusLancamento) {
+        Lancamento lancamentoFiltro = new Lancamento();
+        lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build());
+        lancamentoFiltro.setMes(mes);
+        lancamentoFiltro.setAno(ano);
+        if (tipoLancamento != null)
+            lancamentoFiltro.setTipoLancamento(TipoLancamento.valueOf(tipoLancamento));
+        if (statusLancamento != null)
+            lancamentoFiltro.setStatusLancamento(StatusLancamento.valueOf(statusLancamento));
+        return lancamentoFiltro;
     }
 
     @DeleteMapping("{id}")
-    public ResponseEntity removerLancamento(@PathVariable("id") Long idLancamento) {
+    public ResponseEntity removerLancamento(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                            @PathVariable("id") Long idLancamento) {
         return lancamentoService.obterPorId(idLancamento).map(lancamento -> {
+            if (!Autorizacao.permitido(idAutenticado, idUsuario(lancamento))) {
+                return Autorizacao.negado();
+            }
             lancamentoService.removerLancamento(lancamento);
             return new ResponseEntity(HttpStatus.NO_CONTENT);
         }).orElseGet(() -> new ResponseEntity("Lançamento não encontrado na base de dados.", HttpStatus.BAD_REQUEST));
     }
 
     @GetMapping("{id}")
-    public ResponseEntity obterLancamento(@PathVariable("id") Long idLancamento) {
-        return lancamentoService.obterPorId(idLancamento)
-                .map(lancamento -> new ResponseEntity(converteLancamentoParaLancamentoDTO(lancamento), HttpStatus.OK))
+    public ResponseEntity obterLancamento(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                          @PathVariable("id") Long idLancamento) {
+        return lancamentoService.obterProjecaoPorId(idLancamento)
+                .map(lancamento -> Autorizacao.permitido(idAutenticado, lancamento.getIdUsuario())
+                        ? new ResponseEntity(converteProjecaoParaLancamentoDTO(lancamento), HttpStatus.OK)
+                        : Autorizacao.negado())
                 .orElseGet( () -> new ResponseEntity(HttpStatus.NOT_FOUND));
     }
 
@@ -93,7 +298,24 @@ public class LancamentoResource {
             @RequestParam(value = "ano", required = false) Integer ano,
             @RequestParam(value = "tipo", required = false) String tipoLancamento,
             @RequestParam(value = "status", required = false) String statusLancamento,
-            @RequestParam("usuario") Long idUsuario) {
+            @RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "limit", defaultValue = "" + LIMITE_PADRAO) int limite,
+            @RequestParam(value = "next", required = false) String cursor,
+            WebRequest webRequest) {
+        if (!Autorizacao.permitido(idAutenticado, idUsuario)) {
+            return Autorizacao.negado();
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            return ResponseEntity.badRequest().body("Informe um limite entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+        ChaveLancamento chave;
+        try {
+            chave = decodificarCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Cursor de paginação inválido.");
+        }
+
         Lancamento lancamentoFiltro = new Lancamento();
         lancamentoFiltro.setDescricao(descricao);
         lancamentoFiltro.setMes(mes);
@@ -102,18 +324,94 @@ public class LancamentoResource {
             lancamentoFiltro.setTipoLancamento(TipoLancamento.valueOf(tipoLancamento));
         if (statusLancamento != null)
             lancamentoFiltro.setStatusLancamento(StatusLancamento.valueOf(statusLancamento));
-        Optional<Usuario> retorno = usuarioService.obterPorId(idUsuario);
-        if (retorno.isEmpty()) {
-            return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado para o id informado.");
-        } else {
-            lancamentoFiltro.setUsuario(retorno.get());
+        lancamentoFiltro.setUsuario(usuario(idAutenticado));
+        String etag = etagDaVersao(lancamentoService.obterVersaoPorUsuario(idAutenticado));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
 
-        List<Lancamento> lancamentos = lancamentoService.buscarLancamentos(lancamentoFiltro);
-        return ResponseEntity.ok(lancamentos);
+        Slice<LancamentoProjecao> lancamentos = lancamentoService.buscarLancamentos(lancamentoFiltro, chave, limite);
+        String proximo = lancamentos.hasNext()
+                ? codificarCursor(ChaveLancamento.de(lancamentos.getContent().get(lancamentos.getNumberOfElements() - 1)))
+                : null;
+        List<LancamentoDTO> conteudo = new ArrayList<>(lancamentos.getNumberOfElements());
+        for (LancamentoProjecao lancamento : lancamentos) {
+            conteudo.add(converteProjecaoParaLancamentoDTO(lancamento));
+        }
+        return ResponseEntity.ok().eTag(etag).body(new PaginaDTO<>(conteudo, proximo));
     }
 
-    private LancamentoDTO converteLancamentoParaLancamentoDTO(Lancamento lancamento){
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "formato", defaultValue = "ndjson") String formato) {
+        if (!Autorizacao.permitido(idAutenticado, idUsuario)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(mensagem(Autorizacao.MENSAGEM_ACESSO_NEGADO));
+        }
+        if (formato.equalsIgnoreCase("csv")) {
+            StreamingResponseBody csv = saida -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+                writer.write(LancamentoCsv.CABECALHO);
+                lancamentoService.exportarLancamentos(idAutenticado, lancamento -> LancamentoCsv.escrever(writer, lancamento));
+                writer.flush();
+            };
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lancamentos-" + idAutenticado + ".csv\"")
+                    .body(csv);
+        }
+        if (formato.equalsIgnoreCase("ndjson")) {
+            StreamingResponseBody ndjson = saida -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+                ObjectWriter objectWriter = objectMapper.writerFor(LancamentoDTO.class);
+                lancamentoService.exportarLancamentos(idAutenticado, lancamento -> escreverLinhaJson(writer, objectWriter, lancamento));
+                writer.flush();
+            };
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body(ndjson);
+        }
+        return ResponseEntity.badRequest().body(mensagem("Formato de exportação inválido. Utilize ndjson ou csv."));
+    }
+
+    /**
+     * ETag forte derivada da versão do usuário; a busca e o saldo só mudam quando uma escrita incrementa a versão.
+     */
+    static String etagDaVersao(long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    private static StreamingResponseBody mensagem(String mensagem) {
+        return saida -> saida.write(mensagem.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void escreverLinhaJson(Writer writer, ObjectWriter objectWriter, Lancamento lancamento) {
+        try {
+            writer.write(objectWriter.writeValueAsString(converteLancamentoParaLancamentoDTO(lancamento)));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String codificarCursor(ChaveLancamento chave) {
+        String valor = chave.getAno() + ":" + chave.getMes() + ":" + chave.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChaveLancamento decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        if (partes.length != 3) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        return new ChaveLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+    }
+
+    static LancamentoDTO converteLancamentoParaLancamentoDTO(Lancamento lancamento){
         return LancamentoDTO.builder()
                 .id(lancamento.getId())
                 .descricao(lancamento.getDescricao())
@@ -123,19 +421,44 @@ public class LancamentoResource {
                 .tipo(lancamento.getTipoLancamento().name())
                 .status(lancamento.getStatusLancamento().name())
                 .usuario(lancamento.getUsuario().getId())
+                .versao(lancamento.getVersao())
+                .build();
+    }
+
+    static LancamentoDTO converteProjecaoParaLancamentoDTO(LancamentoProjecao lancamento) {
+        return LancamentoDTO.builder()
+                .id(lancamento.getId())
+                .descricao(lancamento.getDescricao())
+                .valor(lancamento.getValor())
+                .ano(lancamento.getAno())
+                .mes(lancamento.getMes())
+                .tipo(lancamento.getTipoLancamento().name())
+                .status(lancamento.getStatusLancamento().name())
+                .usuario(lancamento.getIdUsuario())
+                .versao(lancamento.getVersao())
                 .build();
     }
 
-    private Lancamento converteLancamentoDTOParaLancamento(LancamentoDTO dto) {
+    /**
+     * Referência ao usuário autenticado; o token dispensa a consulta à base.
+     */
+    private static Usuario usuario(Long idAutenticado) {
+        return Usuario.builder().id(idAutenticado).build();
+    }
+
+    private static Long idUsuario(Lancamento lancamento) {
+        return lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+    }
+
+    Lancamento converteLancamentoDTOParaLancamento(LancamentoDTO dto, Usuario usuario) {
         Lancamento lancamento = new Lancamento();
         lancamento.setId(dto.getId());
         lancamento.setDescricao(dto.getDescricao());
         lancamento.setAno(dto.getAno());
         lancamento.setMes(dto.getMes());
         lancamento.setValor(dto.getValor());
-        lancamento.setUsuario(usuarioService
-                .obterPorId(dto.getUsuario())
-                .orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o id informado")));
+        lancamento.setUsuario(usuario);
+        lancamento.setVersao(dto.getVersao());
         if (dto.getTipo() != null)
             lancamento.setTipoLancamento(TipoLancamento.valueOf(dto.getTipo()));
         if (dto.getStatus() != null)
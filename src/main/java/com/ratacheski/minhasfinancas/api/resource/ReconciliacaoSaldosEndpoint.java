@@ -0,0 +1,43 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import com.ratacheski.minhasfinancas.service.UsuarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Reconciliação dos saldos materializados, fora da API dos usuários. O endpoint não é exposto na web por padrão; em
+ * produção inclua {@code saldos} em {@code management.endpoints.web.exposure.include} apenas junto de uma porta de
+ * gerenciamento interna ({@code management.server.port}).
+ */
+@Component
+@Endpoint(id = "saldos")
+@RequiredArgsConstructor
+public class ReconciliacaoSaldosEndpoint {
+
+    private final LancamentoService lancamentoService;
+    private final UsuarioService usuarioService;
+
+    @WriteOperation
+    public List<SaldoUsuario> reconciliarSaldos() {
+        return lancamentoService.reconciliarSaldos();
+    }
+
+    /**
+     * @return o saldo recalculado; {@code null} se o usuário não existir
+     */
+    @WriteOperation
+    public BigDecimal reconciliarSaldo(@Selector Long idUsuario) {
+        if (usuarioService.obterPorId(idUsuario).isEmpty()) {
+            return null;
+        }
+        return lancamentoService.reconciliarSaldoPorUsuario(idUsuario);
+    }
+}
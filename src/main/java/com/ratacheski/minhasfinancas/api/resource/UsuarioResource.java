@@ -1,18 +1,38 @@
 package com.ratacheski.minhasfinancas.api.resource;
 
+import com.ratacheski.minhasfinancas.api.dto.FluxoMensalDTO;
+import com.ratacheski.minhasfinancas.api.dto.UsuarioAutenticadoDTO;
 import com.ratacheski.minhasfinancas.api.dto.UsuarioDTO;
 import com.ratacheski.minhasfinancas.exception.ErroAutenticacaoException;
 import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensal;
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
 import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
 import com.ratacheski.minhasfinancas.service.LancamentoService;
+import com.ratacheski.minhasfinancas.service.NotificacaoService;
+import com.ratacheski.minhasfinancas.service.TokenService;
 import com.ratacheski.minhasfinancas.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -21,15 +41,33 @@ public class UsuarioResource {
 
     private final UsuarioService usuarioService;
     private final LancamentoService lancamentoService;
+    private final NotificacaoService notificacaoService;
+    private final TokenService tokenService;
 
+    /**
+     * A senha é conferida no executor de hash, sem ocupar a thread da requisição; a resposta traz o token assinado a
+     * ser enviado como {@code Authorization: Bearer} nas demais chamadas.
+     */
     @PostMapping("/autenticar")
-    public ResponseEntity autenticar(@RequestBody UsuarioDTO dto) {
-        try {
-            Usuario usuarioAutenticado = usuarioService.autenticarUsuario(dto.getEmail(), dto.getSenha());
-            return ResponseEntity.ok(usuarioAutenticado);
-        } catch (ErroAutenticacaoException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+    public CompletableFuture<ResponseEntity> autenticar(@RequestBody UsuarioDTO dto) {
+        return usuarioService.autenticarUsuario(dto.getEmail(), dto.getSenha())
+                .<ResponseEntity>thenApply(usuario -> ResponseEntity.ok(UsuarioAutenticadoDTO.builder()
+                        .id(usuario.getId())
+                        .nome(usuario.getNome())
+                        .email(usuario.getEmail())
+                        .token(tokenService.gerarToken(usuario.getId()))
+                        .build()))
+                .exceptionally(erro -> {
+                    Throwable causa = erro instanceof CompletionException ? erro.getCause() : erro;
+                    if (causa instanceof ErroAutenticacaoException) {
+                        return ResponseEntity.badRequest().body(causa.getMessage());
+                    }
+                    if (causa instanceof RejectedExecutionException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                                .body("Muitas autenticações em andamento. Tente novamente.");
+                    }
+                    throw erro instanceof CompletionException ? (CompletionException) erro : new CompletionException(erro);
+                });
     }
 
     @PostMapping
@@ -44,16 +82,74 @@ public class UsuarioResource {
             return new ResponseEntity(usuarioSalvo, HttpStatus.CREATED);
         } catch (RegraNegocioException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Muitos cadastros em andamento. Tente novamente.");
         }
     }
 
     @GetMapping("{id}/saldo")
-    public ResponseEntity obterSaldo(@PathVariable("id") Long idUsuario) {
-        Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
-        if (usuario.isEmpty()) {
-            return new ResponseEntity(HttpStatus.NOT_FOUND);
+    public ResponseEntity obterSaldo(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                     @PathVariable("id") Long idUsuario, WebRequest webRequest) {
+        if (!Autorizacao.permitido(idAutenticado, idUsuario)) {
+            return Autorizacao.negado();
+        }
+        SaldoUsuario saldo = lancamentoService.obterSaldoEVersaoPorUsuario(idUsuario);
+        String etag = LancamentoResource.etagDaVersao(saldo.getVersao());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(saldo.getValor());
+    }
+
+    @GetMapping(value = "{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> assinarEventos(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                                     @PathVariable("id") Long idUsuario) {
+        if (!Autorizacao.permitido(idAutenticado, idUsuario)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(notificacaoService.assinar(idUsuario));
+    }
+
+    @GetMapping("{id}/fluxo")
+    public ResponseEntity obterFluxo(@RequestAttribute(TokenService.ATRIBUTO_ID_USUARIO) Long idAutenticado,
+                                     @PathVariable("id") Long idUsuario,
+                                     @RequestParam("de") String de,
+                                     @RequestParam("ate") String ate,
+                                     @RequestParam(value = "status", defaultValue = "EFETIVADO") String status) {
+        if (!Autorizacao.permitido(idAutenticado, idUsuario)) {
+            return Autorizacao.negado();
+        }
+        try {
+            List<FluxoMensal> fluxo = lancamentoService.obterFluxoMensal(idUsuario, YearMonth.parse(de),
+                    YearMonth.parse(ate), StatusLancamento.valueOf(status));
+            return ResponseEntity.ok(converteFluxoMensalParaFluxoMensalDTO(fluxo));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Informe o período no formato aaaa-mm.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Status de lançamento inválido.");
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private List<FluxoMensalDTO> converteFluxoMensalParaFluxoMensalDTO(List<FluxoMensal> fluxo) {
+        Map<YearMonth, FluxoMensalDTO> meses = new LinkedHashMap<>();
+        for (FluxoMensal total : fluxo) {
+            FluxoMensalDTO mes = meses.computeIfAbsent(YearMonth.of(total.getAno(), total.getMes()),
+                    chave -> FluxoMensalDTO.builder()
+                            .ano(total.getAno())
+                            .mes(total.getMes())
+                            .receitas(BigDecimal.ZERO)
+                            .despesas(BigDecimal.ZERO)
+                            .build());
+            if (total.getTipoLancamento() == TipoLancamento.RECEITA) {
+                mes.setReceitas(mes.getReceitas().add(total.getValor()));
+            } else {
+                mes.setDespesas(mes.getDespesas().add(total.getValor()));
+            }
+            mes.setSaldo(mes.getReceitas().subtract(mes.getDespesas()));
         }
-        BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(idUsuario);
-        return ResponseEntity.ok(saldo);
+        return new ArrayList<>(meses.values());
     }
 }
@@ -0,0 +1,66 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Leitura das próprias escritas com réplicas assíncronas: depois que uma escrita do usuário é confirmada, as leituras
+ * das requisições dele vão ao primário durante a janela configurada. Toda escrita de lançamentos passa pelo saldo do
+ * usuário, por isso as escritas são observadas em {@code SaldoUsuarioRepository}.
+ */
+@Aspect
+public class AfinidadePrimario {
+
+    private final Cache<Long, Boolean> escritasRecentes;
+    private final ThreadLocal<Long> usuarioDaRequisicao = new ThreadLocal<>();
+
+    public AfinidadePrimario(Duration janela) {
+        this.escritasRecentes = janela.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(janela)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @AfterReturning("execution(* com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioRepositoryCustom.adicionarAoSaldo(..)) " +
+            "&& args(idUsuario, ..)")
+    public void aposEscrita(Long idUsuario) {
+        if (escritasRecentes == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    registrarEscrita(idUsuario);
+                }
+            });
+        } else {
+            registrarEscrita(idUsuario);
+        }
+    }
+
+    public void registrarEscrita(Long idUsuario) {
+        if (escritasRecentes != null) {
+            escritasRecentes.put(idUsuario, Boolean.TRUE);
+        }
+    }
+
+    public void definirUsuario(Long idUsuario) {
+        usuarioDaRequisicao.set(idUsuario);
+    }
+
+    public void limparUsuario() {
+        usuarioDaRequisicao.remove();
+    }
+
+    boolean deveLerDoPrimario() {
+        Long idUsuario = usuarioDaRequisicao.get();
+        return idUsuario != null && escritasRecentes != null && escritasRecentes.getIfPresent(idUsuario) != null;
+    }
+}
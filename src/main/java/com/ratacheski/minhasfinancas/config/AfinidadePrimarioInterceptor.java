@@ -0,0 +1,58 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.ratacheski.minhasfinancas.service.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * Identifica o usuário da requisição, pelo token ou, nas rotas sem token, pelo parâmetro {@code usuario} ou pelo
+ * {@code {id}} de {@code /api/usuarios}, para que {@link AfinidadePrimario} mande ao primário as leituras de quem
+ * escreveu há pouco. Roda depois de {@link AutenticacaoTokenInterceptor}.
+ */
+@RequiredArgsConstructor
+class AfinidadePrimarioInterceptor implements AsyncHandlerInterceptor {
+
+    private final AfinidadePrimario afinidadePrimario;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long idUsuario = usuarioDaRequisicao(request);
+        if (idUsuario != null) {
+            afinidadePrimario.definirUsuario(idUsuario);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        afinidadePrimario.limparUsuario();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        afinidadePrimario.limparUsuario();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long usuarioDaRequisicao(HttpServletRequest request) {
+        Object autenticado = request.getAttribute(TokenService.ATRIBUTO_ID_USUARIO);
+        if (autenticado instanceof Long) {
+            return (Long) autenticado;
+        }
+        String usuario = request.getParameter("usuario");
+        if (usuario == null && request.getRequestURI().startsWith("/api/usuarios/")) {
+            Map<String, String> variaveis = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            usuario = variaveis == null ? null : variaveis.get("id");
+        }
+        try {
+            return usuario == null ? null : Long.valueOf(usuario);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.ratacheski.minhasfinancas.service.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.cors.reactive.CorsUtils;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Equivalente de {@link AutenticacaoTokenInterceptor} para as rotas reativas.
+ */
+@RequiredArgsConstructor
+class AutenticacaoTokenFiltro implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private static final String PREFIXO = "Bearer ";
+
+    private final TokenService tokenService;
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        if (CorsUtils.isPreFlightRequest(request.exchange().getRequest())) {
+            return next.handle(request);
+        }
+        String autorizacao = request.headers().asHttpHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (autorizacao == null || !autorizacao.startsWith(PREFIXO)) {
+            return ServerResponse.status(HttpStatus.UNAUTHORIZED).bodyValue("Informe o token de autenticação.");
+        }
+        Optional<Long> idUsuario = tokenService.validarToken(autorizacao.substring(PREFIXO.length()));
+        if (idUsuario.isEmpty()) {
+            return ServerResponse.status(HttpStatus.UNAUTHORIZED).bodyValue("Token inválido ou expirado.");
+        }
+        request.attributes().put(TokenService.ATRIBUTO_ID_USUARIO, idUsuario.get());
+        return next.handle(request);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.ratacheski.minhasfinancas.service.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Valida o token {@code Authorization: Bearer} sem acessar a base e guarda o id do usuário no atributo
+ * {@link TokenService#ATRIBUTO_ID_USUARIO}, de onde os recursos tiram o usuário da requisição. Token ausente, inválido
+ * ou expirado responde 401.
+ */
+@RequiredArgsConstructor
+class AutenticacaoTokenInterceptor implements HandlerInterceptor {
+
+    private static final String PREFIXO = "Bearer ";
+
+    private final TokenService tokenService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (autorizacao == null || !autorizacao.startsWith(PREFIXO)) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Informe o token de autenticação.");
+            return false;
+        }
+        Optional<Long> idUsuario = tokenService.validarToken(autorizacao.substring(PREFIXO.length()));
+        if (idUsuario.isEmpty()) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Token inválido ou expirado.");
+            return false;
+        }
+        request.setAttribute(TokenService.ATRIBUTO_ID_USUARIO, idUsuario.get());
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ratacheski.minhasfinancas.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    /**
+     * Taxa de acertos de cada região do cache de segundo nível; os totais de acertos e faltas já são publicados pelas
+     * métricas {@code hibernate.second.level.cache.requests} do Spring Boot. O registro fica para depois da criação dos
+     * singletons porque o {@code entityManagerFactory} depende do {@code MeterRegistry} pelo contador de comandos SQL.
+     */
+    @Bean
+    public SmartInitializingSingleton taxaAcertosCacheSegundoNivel(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return () -> entityManagerFactory.ifAvailable(emf -> meterRegistry.ifAvailable(registry -> {
+            Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+            for (String regiao : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("financas.cache.segundo.nivel.taxa.acertos", statistics,
+                        estatisticas -> taxaAcertos(estatisticas.getDomainDataRegionStatistics(regiao)))
+                        .tag("regiao", regiao)
+                        .register(registry);
+            }
+        }));
+    }
+
+    private static double taxaAcertos(CacheRegionStatistics regiao) {
+        long consultas = regiao.getHitCount() + regiao.getMissCount();
+        return consultas == 0 ? 0 : (double) regiao.getHitCount() / consultas;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ratacheski.minhasfinancas.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalescência das leituras {@link Coalescido}: enquanto uma chamada com o mesmo método e os mesmos argumentos (que
+ * incluem o usuário) está em andamento, as chamadas idênticas esperam por ela e recebem o mesmo resultado ou a mesma
+ * exceção, em vez de repetir o SQL. Nada fica guardado depois que a chamada termina, então o resultado compartilhado
+ * nunca é mais antigo que o início da consulta em andamento.
+ * <p>
+ * Roda antes da transação, para que quem espera não segure uma conexão. Chamadas feitas dentro de uma transação, que
+ * podem depender de escritas ainda não confirmadas, não são coalescidas, e quem precisa ler do primário pela
+ * {@link AfinidadePrimario} não compartilha a leitura de quem foi à réplica. Os contadores
+ * {@code financas.coalescencia.executadas} e {@code financas.coalescencia.compartilhadas}, por método, medem as
+ * consultas feitas e as evitadas.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "financas.coalescencia.habilitada", havingValue = "true", matchIfMissing = true)
+public class CoalescenciaAspect {
+
+    private final Map<List<Object>, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+    private final Map<String, Counter> executadas = new ConcurrentHashMap<>();
+    private final Map<String, Counter> compartilhadas = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<AfinidadePrimario> afinidadePrimario;
+
+    public CoalescenciaAspect(MeterRegistry meterRegistry, ObjectProvider<AfinidadePrimario> afinidadePrimario) {
+        this.meterRegistry = meterRegistry;
+        this.afinidadePrimario = afinidadePrimario;
+    }
+
+    @Around("@annotation(com.ratacheski.minhasfinancas.config.Coalescido)")
+    public Object coalescer(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        String metodo = joinPoint.getSignature().getName();
+        AfinidadePrimario afinidade = afinidadePrimario.getIfAvailable();
+        boolean primario = afinidade != null && afinidade.deveLerDoPrimario();
+        List<Object> chave = Arrays.asList(joinPoint.getSignature().getDeclaringTypeName(), metodo, primario,
+                Arrays.asList(joinPoint.getArgs()));
+
+        CompletableFuture<Object> chamada = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, chamada);
+        if (existente != null) {
+            contador(compartilhadas, "financas.coalescencia.compartilhadas", metodo).increment();
+            try {
+                return existente.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+        contador(executadas, "financas.coalescencia.executadas", metodo).increment();
+        try {
+            Object resultado = joinPoint.proceed();
+            chamada.complete(resultado);
+            return resultado;
+        } catch (Throwable e) {
+            chamada.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, chamada);
+        }
+    }
+
+    private Counter contador(Map<String, Counter> contadores, String nome, String metodo) {
+        return contadores.computeIfAbsent(metodo, m -> Counter.builder(nome).tag("method", m).register(meterRegistry));
+    }
+}
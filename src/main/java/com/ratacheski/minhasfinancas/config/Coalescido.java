@@ -0,0 +1,17 @@
+package com.ratacheski.minhasfinancas.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Leitura em que chamadas simultâneas com os mesmos argumentos compartilham uma única execução; ver
+ * {@link CoalescenciaAspect}. Os argumentos precisam implementar {@code equals} e {@code hashCode}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalescido {
+}
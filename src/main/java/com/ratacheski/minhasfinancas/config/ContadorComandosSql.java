@@ -0,0 +1,85 @@
+package com.ratacheski.minhasfinancas.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate: no total da aplicação ({@code financas.sql.comandos}) e por
+ * requisição ({@code financas.sql.comandos.requisicao}), logando um aviso quando a requisição passa de
+ * {@code financas.sql.limite-por-requisicao} comandos (0 desabilita o aviso).
+ */
+@Slf4j
+@Component
+public class ContadorComandosSql implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final MeterRegistry meterRegistry;
+    private final int limitePorRequisicao;
+    private final AtomicLong total = new AtomicLong();
+    private final ThreadLocal<Integer> contagemDaThread = new ThreadLocal<>();
+
+    public ContadorComandosSql(MeterRegistry meterRegistry,
+                               @Value("${financas.sql.limite-por-requisicao:0}") int limitePorRequisicao) {
+        this.meterRegistry = meterRegistry;
+        this.limitePorRequisicao = limitePorRequisicao;
+        FunctionCounter.builder("financas.sql.comandos", total, AtomicLong::get)
+                .description("Comandos SQL preparados pelo Hibernate")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        total.incrementAndGet();
+        Integer contagem = contagemDaThread.get();
+        if (contagem != null) {
+            contagemDaThread.set(contagem + 1);
+        }
+        return sql;
+    }
+
+    public long total() {
+        return total.get();
+    }
+
+    /**
+     * Passa a contar os comandos preparados pela thread corrente.
+     */
+    public void iniciar() {
+        contagemDaThread.set(0);
+    }
+
+    /**
+     * Encerra a contagem da thread corrente e retorna quantos comandos foram preparados desde {@link #iniciar()}.
+     */
+    public int finalizar() {
+        Integer contagem = contagemDaThread.get();
+        contagemDaThread.remove();
+        return contagem == null ? 0 : contagem;
+    }
+
+    void registrarRequisicao(String metodo, String uri) {
+        int comandos = finalizar();
+        DistributionSummary.builder("financas.sql.comandos.requisicao")
+                .description("Comandos SQL preparados por requisição")
+                .tags("method", metodo, "uri", uri)
+                .register(meterRegistry)
+                .record(comandos);
+        if (limitePorRequisicao > 0 && comandos > limitePorRequisicao) {
+            log.warn("{} {} executou {} comandos SQL (limite {})", metodo, uri, comandos, limitePorRequisicao);
+        }
+    }
+}
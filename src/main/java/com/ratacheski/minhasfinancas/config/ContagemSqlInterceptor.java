@@ -0,0 +1,44 @@
+package com.ratacheski.minhasfinancas.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Delimita a contagem de comandos SQL de cada requisição. Comandos emitidos fora da thread da requisição, como nas
+ * exportações em streaming, entram só no total, e o redespacho assíncrono não gera uma segunda amostra.
+ */
+@RequiredArgsConstructor
+class ContagemSqlInterceptor implements AsyncHandlerInterceptor {
+
+    private final ContadorComandosSql contador;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        contador.iniciar();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        registrar(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        registrar(request);
+    }
+
+    private void registrar(HttpServletRequest request) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            contador.finalizar();
+            return;
+        }
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        contador.registrarRequisicao(request.getMethod(), padrao == null ? "UNKNOWN" : padrao.toString());
+    }
+}
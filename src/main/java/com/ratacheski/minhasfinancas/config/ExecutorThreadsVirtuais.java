@@ -0,0 +1,44 @@
+package com.ratacheski.minhasfinancas.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executor de uma thread virtual por tarefa. O projeto é compilado para Java 11, então a API do Java 21 é acessada
+ * por reflexão e a criação falha em JVMs anteriores.
+ */
+public class ExecutorThreadsVirtuais extends TaskExecutorAdapter implements DisposableBean {
+
+    private final ExecutorService executor;
+
+    private ExecutorThreadsVirtuais(ExecutorService executor) {
+        super(executor);
+        this.executor = executor;
+    }
+
+    public static ExecutorThreadsVirtuais criar(String prefixoNome) {
+        try {
+            Class<?> tipoConstrutor = Class.forName("java.lang.Thread$Builder");
+            Object construtor = Thread.class.getMethod("ofVirtual").invoke(null);
+            construtor = tipoConstrutor.getMethod("name", String.class, long.class).invoke(construtor, prefixoNome, 0L);
+            ThreadFactory fabrica = (ThreadFactory) tipoConstrutor.getMethod("factory").invoke(construtor);
+            return new ExecutorThreadsVirtuais((ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, fabrica));
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("Threads virtuais exigem Java 21 ou superior; esta JVM é a "
+                    + Runtime.version().feature() + ".", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Falha ao criar o executor de threads virtuais.", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cronometra os métodos públicos dos serviços ({@code financas.servico}) e dos repositórios
+ * ({@code financas.repositorio}). As tags são de baixa cardinalidade: classe, método, resultado, exceção e, nos
+ * serviços, o tipo e o status do lançamento recebido como argumento ({@code none} quando não houver).
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricasAspect {
+
+    private static final String PACOTE_REPOSITORIOS = "com.ratacheski.minhasfinancas.model.repository";
+    private static final String NENHUM = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> nomesRepositorios = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.ratacheski.minhasfinancas.service.bean.*ServiceBean.*(..))")
+    public Object medirServico(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = Tags.of("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .and(tagsDoLancamento(joinPoint.getArgs()));
+        return medir("financas.servico", joinPoint, tags);
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object medirRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = Tags.of("class", nomesRepositorios.computeIfAbsent(joinPoint.getThis().getClass(), this::nomeRepositorio));
+        return medir("financas.repositorio", joinPoint, tags);
+    }
+
+    private Object medir(String nome, ProceedingJoinPoint joinPoint, Tags tags) throws Throwable {
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String excecao = NENHUM;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            excecao = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            amostra.stop(meterRegistry.timer(nome, tags.and(
+                    Tag.of("method", joinPoint.getSignature().getName()),
+                    Tag.of("outcome", NENHUM.equals(excecao) ? "SUCCESS" : "ERROR"),
+                    Tag.of("exception", excecao))));
+        }
+    }
+
+    private String nomeRepositorio(Class<?> proxy) {
+        for (Class<?> interfaceProxy : proxy.getInterfaces()) {
+            if (interfaceProxy.getPackageName().equals(PACOTE_REPOSITORIOS)) {
+                return interfaceProxy.getSimpleName();
+            }
+        }
+        return proxy.getSimpleName();
+    }
+
+    private static Tags tagsDoLancamento(Object[] argumentos) {
+        TipoLancamento tipo = null;
+        StatusLancamento status = null;
+        for (Object argumento : argumentos) {
+            if (argumento instanceof Lancamento) {
+                tipo = ((Lancamento) argumento).getTipoLancamento();
+                status = ((Lancamento) argumento).getStatusLancamento();
+            } else if (argumento instanceof StatusLancamento) {
+                status = (StatusLancamento) argumento;
+            }
+        }
+        return Tags.of("tipo", tipo == null ? NENHUM : tipo.name(), "status", status == null ? NENHUM : status.name());
+    }
+}
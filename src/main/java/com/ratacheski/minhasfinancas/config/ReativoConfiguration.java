@@ -0,0 +1,98 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ratacheski.minhasfinancas.api.resource.LancamentoReativoHandler;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoReativoRepository;
+import com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioReativoRepository;
+import com.ratacheski.minhasfinancas.service.TokenService;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.Arrays;
+
+/**
+ * API reativa de leitura (busca, saldo e exportação de lançamentos) sobre R2DBC, ativada por
+ * {@code financas.reativo.r2dbc.url}, por exemplo {@code r2dbc:postgresql://localhost:5432/minhasfinancas}. Usuário e
+ * senha são os de {@code spring.datasource} quando não informados. As leituras vão sempre ao banco da URL, sem passar
+ * pelas réplicas nem pelo cache de segundo nível do Hibernate.
+ */
+@Configuration
+@ConditionalOnProperty("financas.reativo.r2dbc.url")
+public class ReativoConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionPoolReativo(DataSourceProperties dataSourceProperties,
+                                                @Value("${financas.reativo.r2dbc.url}") String url,
+                                                @Value("${financas.reativo.r2dbc.username:}") String usuario,
+                                                @Value("${financas.reativo.r2dbc.password:}") String senha,
+                                                @Value("${financas.reativo.r2dbc.tamanho-pool:10}") int tamanhoPool) {
+        ConnectionFactoryOptions opcoes = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, usuario.isEmpty() ? dataSourceProperties.determineUsername() : usuario)
+                .option(ConnectionFactoryOptions.PASSWORD, senha.isEmpty() ? dataSourceProperties.determinePassword() : senha)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opcoes))
+                .name("reativo")
+                .initialSize(1)
+                .maxSize(tamanhoPool)
+                .build());
+    }
+
+    @Bean
+    public LancamentoReativoRepository lancamentoReativoRepository(ConnectionPool connectionPoolReativo) {
+        return new LancamentoReativoRepository(connectionPoolReativo);
+    }
+
+    @Bean
+    public SaldoUsuarioReativoRepository saldoUsuarioReativoRepository(ConnectionPool connectionPoolReativo) {
+        return new SaldoUsuarioReativoRepository(connectionPoolReativo);
+    }
+
+    @Bean
+    public LancamentoReativoHandler lancamentoReativoHandler(LancamentoReativoRepository lancamentoReativoRepository,
+                                                             SaldoUsuarioReativoRepository saldoUsuarioReativoRepository,
+                                                             ObjectMapper objectMapper) {
+        return new LancamentoReativoHandler(lancamentoReativoRepository, saldoUsuarioReativoRepository, objectMapper);
+    }
+
+    @Bean
+    public ServidorReativo servidorReativo(LancamentoReativoHandler lancamentoReativoHandler, ObjectMapper objectMapper,
+                                           ObjectProvider<TokenService> tokenService,
+                                           @Value("${financas.reativo.porta:8081}") int porta) {
+        RouterFunction<ServerResponse> rotas = lancamentoReativoHandler.rotas();
+        TokenService servico = tokenService.getIfAvailable();
+        if (servico != null) {
+            rotas = rotas.filter(new AutenticacaoTokenFiltro(servico));
+        }
+
+        CorsConfiguration cors = new CorsConfiguration().applyPermitDefaultValues();
+        cors.setAllowedMethods(Arrays.asList("GET", "OPTIONS"));
+        UrlBasedCorsConfigurationSource origemCors = new UrlBasedCorsConfigurationSource();
+        origemCors.registerCorsConfiguration("/**", cors);
+
+        HandlerStrategies estrategias = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .webFilter(new CorsWebFilter(origemCors))
+                .build();
+        return new ServidorReativo(RouterFunctions.toHttpHandler(rotas, estrategias), porta);
+    }
+}
@@ -0,0 +1,90 @@
+package com.ratacheski.minhasfinancas.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia as transações {@code readOnly} às réplicas, em rodízio, e o restante ao primário. Uma réplica que recusa
+ * conexão sai do rodízio por {@code intervaloReconexao}; sem réplica disponível, ou quando o usuário da requisição
+ * escreveu há pouco ({@link AfinidadePrimario}), a leitura vai ao primário.
+ * <p>
+ * Deve ficar atrás de um {@code LazyConnectionDataSourceProxy}: o Hibernate pede a conexão ao iniciar a transação,
+ * antes de o Spring marcá-la como somente leitura.
+ */
+@Slf4j
+public class RoteamentoDataSource extends AbstractDataSource {
+
+    private final DataSource primario;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AfinidadePrimario afinidadePrimario;
+    private final long intervaloReconexaoNanos;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public RoteamentoDataSource(DataSource primario, List<DataSource> replicas, AfinidadePrimario afinidadePrimario,
+                                Duration intervaloReconexao) {
+        this.primario = primario;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + (i + 1), replicas.get(i)));
+        }
+        this.afinidadePrimario = afinidadePrimario;
+        this.intervaloReconexaoNanos = intervaloReconexao.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || afinidadePrimario.deveLerDoPrimario()) {
+            return primario.getConnection();
+        }
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            if (replica.disponivel()) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.indisponivelAte = System.nanoTime() + intervaloReconexaoNanos;
+                    log.warn("Réplica {} indisponível, fora do rodízio por {} ms: {}", replica.nome,
+                            intervaloReconexaoNanos / 1_000_000, e.getMessage());
+                }
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primario.getConnection(username, password);
+    }
+
+    /**
+     * Quantidade de réplicas atualmente no rodízio.
+     */
+    public int replicasDisponiveis() {
+        return (int) replicas.stream().filter(Replica::disponivel).count();
+    }
+
+    private static class Replica {
+        private final String nome;
+        private final DataSource dataSource;
+        private volatile long indisponivelAte;
+
+        Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+            this.indisponivelAte = System.nanoTime();
+        }
+
+        boolean disponivel() {
+            return System.nanoTime() - indisponivelAte >= 0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ativa o roteamento de leituras quando há ao menos uma réplica configurada; sem réplicas, vale o DataSource único
+ * do Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty("financas.datasource.replicas[0].url")
+@EnableConfigurationProperties(RoteamentoDataSourceProperties.class)
+public class RoteamentoDataSourceConfiguration {
+
+    @Bean
+    public AfinidadePrimario afinidadePrimario(RoteamentoDataSourceProperties properties) {
+        return new AfinidadePrimario(properties.getJanelaLeituraPrimario());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, RoteamentoDataSourceProperties properties,
+                                 AfinidadePrimario afinidadePrimario, ObjectProvider<MeterRegistry> meterRegistry,
+                                 Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primario = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+        primario.setPoolName("primario");
+        meterRegistry.ifAvailable(registry -> primario.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (RoteamentoDataSourceProperties.Replica configuracao : properties.getReplicas()) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(configuracao.getUrl())
+                    .username(configuracao.getUsername() != null ? configuracao.getUsername() : dataSourceProperties.determineUsername())
+                    .password(configuracao.getPassword() != null ? configuracao.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(properties.getTempoLimiteConexaoReplica().toMillis());
+            replica.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        return new LazyConnectionDataSourceProxy(new RoteamentoDataSource(primario, replicas, afinidadePrimario,
+                properties.getIntervaloReconexao()));
+    }
+}
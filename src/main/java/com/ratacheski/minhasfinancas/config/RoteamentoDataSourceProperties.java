@@ -0,0 +1,35 @@
+package com.ratacheski.minhasfinancas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura ({@code financas.datasource.replicas[n].url}); usuário e senha, quando omitidos, são os do
+ * {@code spring.datasource}.
+ */
+@Data
+@ConfigurationProperties("financas.datasource")
+public class RoteamentoDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** Tempo em que uma réplica que recusou conexão fica fora do rodízio. */
+    private Duration intervaloReconexao = Duration.ofSeconds(30);
+
+    /** Tempo máximo de espera por uma conexão da réplica antes de recorrer ao primário. */
+    private Duration tempoLimiteConexaoReplica = Duration.ofSeconds(1);
+
+    /** Janela após uma escrita do usuário em que as leituras dele vão ao primário (0 desabilita). */
+    private Duration janelaLeituraPrimario = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ratacheski.minhasfinancas.config;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Servidor Reactor Netty da API reativa, em porta própria ao lado do Tomcat. Atende nas threads de event loop do
+ * Netty, uma por núcleo; com a porta 0 escolhe uma porta livre, informada por {@link #getPorta()}.
+ */
+public class ServidorReativo implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+    private final int porta;
+    private volatile DisposableServer servidor;
+
+    public ServidorReativo(HttpHandler httpHandler, int porta) {
+        this.httpHandler = httpHandler;
+        this.porta = porta;
+    }
+
+    public int getPorta() {
+        return servidor.port();
+    }
+
+    @Override
+    public void start() {
+        servidor = HttpServer.create()
+                .port(porta)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer atual = servidor;
+        if (atual != null) {
+            atual.disposeNow();
+            servidor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return servidor != null;
+    }
+}
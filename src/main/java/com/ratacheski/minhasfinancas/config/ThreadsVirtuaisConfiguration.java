@@ -0,0 +1,28 @@
+package com.ratacheski.minhasfinancas.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modo opcional em que o Tomcat atende cada requisição em uma thread virtual, e com ela as chamadas bloqueantes de
+ * serviço e repositório. Sem o teto de threads do Tomcat, quem limita a concorrência no banco é o pool de conexões
+ * ({@code spring.datasource.hikari.maximum-pool-size}), e a espera por conexão é limitada por
+ * {@code spring.datasource.hikari.connection-timeout}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "financas.servidor.threads-virtuais", havingValue = "true")
+public class ThreadsVirtuaisConfiguration {
+
+    @Bean
+    public ExecutorThreadsVirtuais executorThreadsVirtuais() {
+        return ExecutorThreadsVirtuais.criar("http-virtual-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> executorTomcat(ExecutorThreadsVirtuais executorThreadsVirtuais) {
+        return protocolHandler -> protocolHandler.setExecutor(executorThreadsVirtuais);
+    }
+}
@@ -1,16 +1,63 @@
 package com.ratacheski.minhasfinancas.config;
 
+import com.ratacheski.minhasfinancas.service.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @EnableWebMvc
+@RequiredArgsConstructor
 public class WebConfiguration implements WebMvcConfigurer {
+
+    private final ObjectProvider<ContadorComandosSql> contadorComandosSql;
+    private final ObjectProvider<AfinidadePrimario> afinidadePrimario;
+    private final ObjectProvider<TokenService> tokenService;
+    private final ObjectProvider<ExecutorThreadsVirtuais> executorThreadsVirtuais;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
-                .allowedMethods("GET","POST","PUT","DELETE","OPTIONS");
+                .allowedMethods("GET","POST","PUT","PATCH","DELETE","OPTIONS");
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        tokenService.ifAvailable(servico ->
+                registry.addInterceptor(new AutenticacaoTokenInterceptor(servico))
+                        .addPathPatterns("/api/**")
+                        .excludePathPatterns("/api/usuarios", "/api/usuarios/autenticar"));
+        contadorComandosSql.ifAvailable(contador ->
+                registry.addInterceptor(new ContagemSqlInterceptor(contador)).addPathPatterns("/api/**"));
+        afinidadePrimario.ifAvailable(afinidade ->
+                registry.addInterceptor(new AfinidadePrimarioInterceptor(afinidade)).addPathPatterns("/api/**"));
+    }
+
+    /**
+     * No modo de threads virtuais as respostas assíncronas (exportação em streaming) também rodam em threads virtuais.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        AsyncTaskExecutor executor = executorThreadsVirtuais.getIfAvailable();
+        if (executor == null) {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setThreadNamePrefix("mvc-async-");
+            pool.setCorePoolSize(4);
+            pool.setMaxPoolSize(16);
+            pool.setQueueCapacity(100);
+            pool.initialize();
+            executor = pool;
+        }
+        configurer.setTaskExecutor(executor);
+        configurer.setDefaultTimeout(TimeUnit.HOURS.toMillis(1));
     }
 }
@@ -0,0 +1,7 @@
+package com.ratacheski.minhasfinancas.exception;
+
+public class ConflitoVersaoException extends RuntimeException {
+    public ConflitoVersaoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ratacheski.minhasfinancas.model.entity;
+
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Total dos lançamentos de um usuário por mês, tipo e status, mantido incrementalmente a cada escrita.
+ */
+@Entity
+@Table(name = "fluxo_mensal", schema = "financas")
+@IdClass(FluxoMensalId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FluxoMensal {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Id
+    @Column(name = "ano")
+    private Integer ano;
+
+    @Id
+    @Column(name = "mes")
+    private Integer mes;
+
+    @Id
+    @Column(name = "tipo")
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipoLancamento;
+
+    @Id
+    @Column(name = "status")
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento statusLancamento;
+
+    @Column(name = "valor")
+    private BigDecimal valor;
+
+    @Column(name = "quantidade")
+    private Long quantidade;
+
+}
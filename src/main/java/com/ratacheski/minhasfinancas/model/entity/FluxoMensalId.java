@@ -0,0 +1,20 @@
+package com.ratacheski.minhasfinancas.model.entity;
+
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FluxoMensalId implements Serializable {
+    private Long idUsuario;
+    private Integer ano;
+    private Integer mes;
+    private TipoLancamento tipoLancamento;
+    private StatusLancamento statusLancamento;
+}
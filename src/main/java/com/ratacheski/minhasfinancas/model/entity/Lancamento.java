@@ -6,7 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -14,6 +15,7 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "lancamento", schema = "financas")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "lancamento")
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,7 +23,8 @@ import java.time.LocalDate;
 public class Lancamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_id_seq")
+    @SequenceGenerator(name = "lancamento_id_seq", schema = "financas", sequenceName = "lancamento_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -34,7 +37,7 @@ public class Lancamento {
     @Column(name = "ano")
     private Integer ano;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_usuario")
     private Usuario usuario;
 
@@ -42,7 +45,6 @@ public class Lancamento {
     private BigDecimal valor;
 
     @Column(name = "data_cadastro")
-    @Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
     private LocalDate dataCadastro;
 
     @Column(name = "tipo")
@@ -53,4 +55,8 @@ public class Lancamento {
     @Enumerated(value = EnumType.STRING)
     private StatusLancamento statusLancamento;
 
+    @Version
+    @Column(name = "versao")
+    private Long versao;
+
 }
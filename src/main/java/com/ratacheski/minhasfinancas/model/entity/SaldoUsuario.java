@@ -0,0 +1,40 @@
+package com.ratacheski.minhasfinancas.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "saldo_usuario", schema = "financas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "valor")
+    private BigDecimal valor;
+
+    /**
+     * Incrementada pelas consultas de {@code SaldoUsuarioRepository}, nunca pelo {@code save}.
+     */
+    @Column(name = "versao", insertable = false, updatable = false)
+    private Long versao;
+
+    public SaldoUsuario(Long idUsuario, BigDecimal valor) {
+        this.idUsuario = idUsuario;
+        this.valor = valor;
+    }
+
+}
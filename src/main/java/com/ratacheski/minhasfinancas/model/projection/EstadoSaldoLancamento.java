@@ -0,0 +1,22 @@
+package com.ratacheski.minhasfinancas.model.projection;
+
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface EstadoSaldoLancamento {
+    Long getIdUsuario();
+
+    Integer getAno();
+
+    Integer getMes();
+
+    TipoLancamento getTipoLancamento();
+
+    StatusLancamento getStatusLancamento();
+
+    BigDecimal getValor();
+
+    Long getVersao();
+}
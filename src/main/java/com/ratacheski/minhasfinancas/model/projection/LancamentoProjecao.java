@@ -0,0 +1,24 @@
+package com.ratacheski.minhasfinancas.model.projection;
+
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LancamentoProjecao implements EstadoSaldoLancamento {
+    private Long id;
+    private String descricao;
+    private Integer mes;
+    private Integer ano;
+    private BigDecimal valor;
+    private Long idUsuario;
+    private TipoLancamento tipoLancamento;
+    private StatusLancamento statusLancamento;
+    private Long versao;
+}
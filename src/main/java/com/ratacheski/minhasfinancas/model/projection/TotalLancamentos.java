@@ -0,0 +1,22 @@
+package com.ratacheski.minhasfinancas.model.projection;
+
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalLancamentos {
+    private Long idUsuario;
+    private Integer ano;
+    private Integer mes;
+    private TipoLancamento tipoLancamento;
+    private StatusLancamento statusLancamento;
+    private BigDecimal valor;
+    private Long quantidade;
+}
@@ -0,0 +1,24 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChaveLancamento {
+    private Integer ano;
+    private Integer mes;
+    private Long id;
+
+    public static ChaveLancamento de(Lancamento lancamento) {
+        return new ChaveLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+
+    public static ChaveLancamento de(LancamentoProjecao lancamento) {
+        return new ChaveLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+}
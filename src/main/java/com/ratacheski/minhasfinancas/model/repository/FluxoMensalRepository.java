@@ -0,0 +1,27 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensal;
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensalId;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface FluxoMensalRepository extends JpaRepository<FluxoMensal, FluxoMensalId>, FluxoMensalRepositoryCustom {
+
+    /**
+     * Período no formato ano * 100 + mês (ex.: 202401); o filtro por ano restringe a faixa lida da chave primária.
+     */
+    @Query(value = "select f from FluxoMensal f " +
+            "where f.idUsuario = :idUsuario and f.statusLancamento = :statusLancamento and f.quantidade > 0 " +
+            "and f.ano between :de / 100 and :ate / 100 and f.ano * 100 + f.mes between :de and :ate " +
+            "order by f.ano, f.mes")
+    List<FluxoMensal> buscarPorUsuarioEPeriodo(
+            @Param("idUsuario") Long idUsuario,
+            @Param("statusLancamento") StatusLancamento statusLancamento,
+            @Param("de") Integer de,
+            @Param("ate") Integer ate
+    );
+}
@@ -0,0 +1,15 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface FluxoMensalRepositoryCustom {
+
+    /**
+     * Soma valor e quantidade na linha do fluxo numa única instrução, criando a linha quando ela ainda não existe.
+     */
+    int adicionarAoFluxo(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipoLancamento,
+                         StatusLancamento statusLancamento, BigDecimal valor, Long quantidade);
+}
@@ -0,0 +1,58 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensal;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.postgresql.PGConnection;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.math.BigDecimal;
+
+/**
+ * Declara a tabela afetada pela escrita nativa para não invalidar as demais regiões do cache de segundo nível.
+ */
+public class FluxoMensalRepositoryImpl implements FluxoMensalRepositoryCustom {
+
+    private static final String UPSERT_POSTGRES =
+            "insert into financas.fluxo_mensal as f (id_usuario, ano, mes, tipo, status, valor, quantidade) " +
+            "values (:idUsuario, :ano, :mes, :tipo, :status, :valor, :quantidade) " +
+            "on conflict (id_usuario, ano, mes, tipo, status) " +
+            "do update set valor = f.valor + excluded.valor, quantidade = f.quantidade + excluded.quantidade";
+
+    private static final String MERGE_H2 =
+            "merge into financas.fluxo_mensal f " +
+            "using (select cast(:idUsuario as bigint) as id_usuario, cast(:ano as integer) as ano, " +
+            "cast(:mes as integer) as mes, cast(:tipo as varchar(20)) as tipo, cast(:status as varchar(20)) as status, " +
+            "cast(:valor as numeric(18, 2)) as valor, cast(:quantidade as bigint) as quantidade) d " +
+            "on f.id_usuario = d.id_usuario and f.ano = d.ano and f.mes = d.mes and f.tipo = d.tipo and f.status = d.status " +
+            "when matched then update set f.valor = f.valor + d.valor, f.quantidade = f.quantidade + d.quantidade " +
+            "when not matched then insert (id_usuario, ano, mes, tipo, status, valor, quantidade) " +
+            "values (d.id_usuario, d.ano, d.mes, d.tipo, d.status, d.valor, d.quantidade)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int adicionarAoFluxo(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipoLancamento,
+                                StatusLancamento statusLancamento, BigDecimal valor, Long quantidade) {
+        return entityManager
+                .createNativeQuery(postgres() ? UPSERT_POSTGRES : MERGE_H2)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(FluxoMensal.class)
+                .setParameter("idUsuario", idUsuario)
+                .setParameter("ano", ano)
+                .setParameter("mes", mes)
+                .setParameter("tipo", tipoLancamento.name())
+                .setParameter("status", statusLancamento.name())
+                .setParameter("valor", valor)
+                .setParameter("quantidade", quantidade)
+                .executeUpdate();
+    }
+
+    private boolean postgres() {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> connection.isWrapperFor(PGConnection.class));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * As consultas de leitura de {@link LancamentoRepository} sobre R2DBC, para a API reativa.
+ */
+public class LancamentoReativoRepository extends RepositorioR2dbc {
+
+    private static final String COLUNAS = "id, descricao, mes, ano, valor, id_usuario, tipo, status, versao";
+
+    public LancamentoReativoRepository(ConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    /**
+     * Mesmos filtros e ordem de {@link LancamentoRepositoryCustom#buscarAposChave}, mas emite até {@code limite + 1}
+     * lançamentos: o excedente indica que há uma próxima página. A chave é comparada como tupla, que o PostgreSQL usa
+     * como início da faixa no índice (id_usuario, ano, mes, id).
+     */
+    public Flux<LancamentoProjecao> buscarAposChave(Lancamento filtro, ChaveLancamento chave, int limite) {
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select ").append(COLUNAS).append(" from financas.lancamento where id_usuario = ")
+                .append(parametro(parametros, filtro.getUsuario().getId()));
+        if (filtro.getDescricao() != null) {
+            String descricao = "%" + LancamentoRepositoryImpl.escaparLike(filtro.getDescricao().toLowerCase()) + "%";
+            sql.append(" and lower(descricao) like ").append(parametro(parametros, descricao)).append(" escape '\\'");
+        }
+        if (filtro.getMes() != null) {
+            sql.append(" and mes = ").append(parametro(parametros, filtro.getMes()));
+        }
+        if (filtro.getAno() != null) {
+            sql.append(" and ano = ").append(parametro(parametros, filtro.getAno()));
+        }
+        if (filtro.getTipoLancamento() != null) {
+            sql.append(" and tipo = ").append(parametro(parametros, filtro.getTipoLancamento().name()));
+        }
+        if (filtro.getStatusLancamento() != null) {
+            sql.append(" and status = ").append(parametro(parametros, filtro.getStatusLancamento().name()));
+        }
+        if (chave != null) {
+            sql.append(" and (ano, mes, id) > (").append(parametro(parametros, chave.getAno()))
+                    .append(", ").append(parametro(parametros, chave.getMes()))
+                    .append(", ").append(parametro(parametros, chave.getId())).append(")");
+        }
+        sql.append(" order by ano, mes, id limit ").append(limite + 1);
+        return consultar(sql.toString(), parametros, 0, (linha, metadados) -> new LancamentoProjecao(
+                linha.get("id", Long.class), linha.get("descricao", String.class), linha.get("mes", Integer.class),
+                linha.get("ano", Integer.class), linha.get("valor", BigDecimal.class), linha.get("id_usuario", Long.class),
+                TipoLancamento.valueOf(linha.get("tipo", String.class)),
+                StatusLancamento.valueOf(linha.get("status", String.class)), linha.get("versao", Long.class)));
+    }
+
+    /**
+     * Equivalente a {@link LancamentoRepositoryCustom#percorrerPorUsuario}: o cursor no banco avança
+     * {@code tamanhoLote} linhas por vez, só quando quem assina pede mais.
+     */
+    public Flux<Lancamento> percorrerPorUsuario(Long idUsuario, int tamanhoLote) {
+        return consultar("select " + COLUNAS + ", data_cadastro from financas.lancamento where id_usuario = $1 " +
+                "order by ano, mes, id", Collections.singletonList(idUsuario), tamanhoLote, (linha, metadados) -> lancamento(linha));
+    }
+
+    private static Lancamento lancamento(Row linha) {
+        return Lancamento.builder()
+                .id(linha.get("id", Long.class))
+                .descricao(linha.get("descricao", String.class))
+                .mes(linha.get("mes", Integer.class))
+                .ano(linha.get("ano", Integer.class))
+                .valor(linha.get("valor", BigDecimal.class))
+                .usuario(Usuario.builder().id(linha.get("id_usuario", Long.class)).build())
+                .tipoLancamento(TipoLancamento.valueOf(linha.get("tipo", String.class)))
+                .statusLancamento(StatusLancamento.valueOf(linha.get("status", String.class)))
+                .versao(linha.get("versao", Long.class))
+                .dataCadastro(linha.get("data_cadastro", LocalDate.class))
+                .build();
+    }
+
+    private static String parametro(List<Object> parametros, Object valor) {
+        parametros.add(valor);
+        return "$" + parametros.size();
+    }
+}
@@ -1,15 +1,22 @@
 package com.ratacheski.minhasfinancas.model.repository;
 
 import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
 import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
 import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.EstadoSaldoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
 
     @Query(value = "select sum(l.valor) from Lancamento l join l.usuario u " +
             "where u.id = :idUsuario and l.tipoLancamento = :tipoLancamento and l.statusLancamento = :statusLancamento " +
@@ -19,4 +26,29 @@ public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
             @Param("tipoLancamento") TipoLancamento tipoLancamento,
             @Param("statusLancamento") StatusLancamento statusLancamento
     );
+
+    /**
+     * Lê o estado gravado na base, sem descarregar alterações pendentes do contexto de persistência,
+     * para que os deltas do saldo e do fluxo mensal sejam calculados contra o valor anterior à alteração.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query(value = "select u.id as idUsuario, l.ano as ano, l.mes as mes, l.tipoLancamento as tipoLancamento, " +
+            "l.statusLancamento as statusLancamento, l.valor as valor, l.versao as versao " +
+            "from Lancamento l left join l.usuario u where l.id = :idLancamento")
+    Optional<EstadoSaldoLancamento> obterEstadoSaldoPorId(@Param("idLancamento") Long idLancamento);
+
+    @Query(value = "select new com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao(" +
+            "l.id, l.descricao, l.mes, l.ano, l.valor, l.usuario.id, l.tipoLancamento, l.statusLancamento, l.versao) " +
+            "from Lancamento l where l.id = :idLancamento")
+    Optional<LancamentoProjecao> obterProjecaoPorId(@Param("idLancamento") Long idLancamento);
+
+    @Query(value = "select new com.ratacheski.minhasfinancas.model.entity.SaldoUsuario(u.id, " +
+            "sum(case when l.tipoLancamento = com.ratacheski.minhasfinancas.model.enums.TipoLancamento.RECEITA " +
+            "then l.valor else -l.valor end)) " +
+            "from Lancamento l join l.usuario u " +
+            "where l.statusLancamento = com.ratacheski.minhasfinancas.model.enums.StatusLancamento.EFETIVADO " +
+            "group by u.id")
+    List<SaldoUsuario> calcularSaldosEfetivados();
+
+    boolean existsByIdAndUsuarioId(Long id, Long idUsuario);
 }
@@ -0,0 +1,40 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import com.ratacheski.minhasfinancas.model.projection.TotalLancamentos;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface LancamentoRepositoryCustom {
+
+    Slice<LancamentoProjecao> buscarAposChave(Lancamento lancamentoFiltro, ChaveLancamento chave, int limite);
+
+    int inserirEmLote(List<Lancamento> lancamentos, int tamanhoLote);
+
+    List<TotalLancamentos> totalizarEmLote(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento statusDiferenteDe);
+
+    int atualizarStatusEmLote(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento statusLancamento);
+
+    int removerEmLote(Lancamento lancamentoFiltro, Collection<Long> ids);
+
+    /**
+     * Grava apenas os campos não nulos de {@code alteracoes} com um único UPDATE condicionado ao dono e à versão
+     * (ignorada se nula) e devolve o estado anterior à alteração; vazio se o lançamento não existe, é de outro usuário
+     * ou a versão não confere.
+     */
+    Optional<LancamentoProjecao> atualizarParcialmente(Long idLancamento, Long idUsuario, Long versao, Lancamento alteracoes);
+
+    long percorrerPorUsuario(Long idUsuario, int tamanhoLote, Consumer<Lancamento> consumidor);
+
+    /**
+     * Cria a partição do ano quando a tabela é particionada, tirando da partição padrão as linhas que já caíram lá;
+     * sem efeito fora do PostgreSQL.
+     */
+    void criarParticao(int ano);
+}
@@ -0,0 +1,377 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import com.ratacheski.minhasfinancas.model.projection.TotalLancamentos;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.postgresql.PGConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Slf4j
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+
+    private static final String COLUNAS_ESTADO = "id, descricao, mes, ano, valor, id_usuario, tipo, status, versao";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Paginação por chave (ano, mes, id): cada página parte da última chave lida em vez de usar OFFSET,
+     * então o custo não cresce com a profundidade da página.
+     */
+    @Override
+    public Slice<LancamentoProjecao> buscarAposChave(Lancamento lancamentoFiltro, ChaveLancamento chave, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LancamentoProjecao> query = cb.createQuery(LancamentoProjecao.class);
+        Root<Lancamento> lancamento = query.from(Lancamento.class);
+
+        List<Predicate> predicados = filtrar(cb, lancamento, lancamentoFiltro);
+        if (chave != null) {
+            predicados.add(aposChave(cb, lancamento, chave));
+        }
+
+        query.select(cb.construct(LancamentoProjecao.class, lancamento.get("id"), lancamento.get("descricao"),
+                lancamento.get("mes"), lancamento.get("ano"), lancamento.get("valor"), lancamento.get("usuario").get("id"),
+                lancamento.get("tipoLancamento"), lancamento.get("statusLancamento"), lancamento.get("versao")))
+                .where(predicados.toArray(new Predicate[0]))
+                .orderBy(cb.asc(lancamento.get("ano")), cb.asc(lancamento.get("mes")), cb.asc(lancamento.get("id")));
+
+        List<LancamentoProjecao> lancamentos = entityManager.createQuery(query)
+                .setMaxResults(limite + 1)
+                .getResultList();
+        boolean possuiProxima = lancamentos.size() > limite;
+        if (possuiProxima) {
+            lancamentos = lancamentos.subList(0, limite);
+        }
+        return new SliceImpl<>(lancamentos, PageRequest.of(0, limite), possuiProxima);
+    }
+
+    @Override
+    public List<TotalLancamentos> totalizarEmLote(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento statusDiferenteDe) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TotalLancamentos> query = cb.createQuery(TotalLancamentos.class);
+        Root<Lancamento> lancamento = query.from(Lancamento.class);
+        Path<Long> idUsuario = lancamento.get("usuario").get("id");
+        query.select(cb.construct(TotalLancamentos.class, idUsuario, lancamento.get("ano"), lancamento.get("mes"),
+                lancamento.get("tipoLancamento"), lancamento.get("statusLancamento"),
+                cb.sum(lancamento.<BigDecimal>get("valor")), cb.count(lancamento)))
+                .where(filtrarEmLote(cb, lancamento, lancamentoFiltro, ids, statusDiferenteDe))
+                .groupBy(idUsuario, lancamento.get("ano"), lancamento.get("mes"),
+                        lancamento.get("tipoLancamento"), lancamento.get("statusLancamento"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Atualização set-based: um único UPDATE com o usuário dono no WHERE, em vez de carregar e mesclar cada lançamento.
+     */
+    @Override
+    public int atualizarStatusEmLote(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento statusLancamento) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+        Root<Lancamento> lancamento = update.from(Lancamento.class);
+        update.set(lancamento.get("statusLancamento"), statusLancamento)
+                .set(lancamento.<Long>get("versao"), cb.sum(lancamento.<Long>get("versao"), 1L))
+                .where(filtrarEmLote(cb, lancamento, lancamentoFiltro, ids, statusLancamento));
+        return executarEmLote(entityManager.createQuery(update));
+    }
+
+    @Override
+    public int removerEmLote(Lancamento lancamentoFiltro, Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Lancamento> delete = cb.createCriteriaDelete(Lancamento.class);
+        Root<Lancamento> lancamento = delete.from(Lancamento.class);
+        delete.where(filtrarEmLote(cb, lancamento, lancamentoFiltro, ids, null));
+        return executarEmLote(entityManager.createQuery(delete));
+    }
+
+    /**
+     * No PostgreSQL o estado anterior vem do próprio UPDATE ({@code FROM ... FOR UPDATE ... RETURNING}), sem consulta
+     * prévia. O H2 1.4.200, usado nos testes, não aplica o UPDATE dentro de {@code OLD TABLE (...)}; nele a linha é
+     * lida e travada antes. A entrada do lançamento no cache de segundo nível fica travada até o fim da transação,
+     * para que ninguém leia dali a versão antiga.
+     */
+    @Override
+    public Optional<LancamentoProjecao> atualizarParcialmente(Long idLancamento, Long idUsuario, Long versao,
+                                                              Lancamento alteracoes) {
+        Map<String, Object> colunas = new LinkedHashMap<>();
+        colunas.put("descricao", alteracoes.getDescricao());
+        colunas.put("mes", alteracoes.getMes());
+        colunas.put("ano", alteracoes.getAno());
+        colunas.put("valor", alteracoes.getValor());
+        colunas.put("tipo", alteracoes.getTipoLancamento() == null ? null : alteracoes.getTipoLancamento().name());
+        colunas.put("status", alteracoes.getStatusLancamento() == null ? null : alteracoes.getStatusLancamento().name());
+        colunas.values().removeIf(Objects::isNull);
+        StringBuilder atribuicoes = new StringBuilder();
+        colunas.keySet().forEach(coluna -> atribuicoes.append(coluna).append(" = :").append(coluna).append(", "));
+        atribuicoes.append("versao = l.versao + 1");
+        String estadoAnterior = "select " + COLUNAS_ESTADO + " from financas.lancamento where id = :id and id_usuario = :idUsuario" +
+                (versao == null ? "" : " and versao = :versao") + " for update";
+
+        travarNoCache(idLancamento);
+        List<?> linhas;
+        if (postgres()) {
+            linhas = parametros(entityManager.createNativeQuery("update financas.lancamento l set " + atribuicoes +
+                    " from (" + estadoAnterior + ") anterior where l.id = anterior.id returning anterior.*"),
+                    idLancamento, idUsuario, versao, colunas).getResultList();
+        } else {
+            linhas = parametros(entityManager.createNativeQuery(estadoAnterior), idLancamento, idUsuario, versao, Map.of())
+                    .getResultList();
+            if (!linhas.isEmpty()) {
+                parametros(entityManager.createNativeQuery("update financas.lancamento l set " + atribuicoes +
+                        " where l.id = :id").unwrap(NativeQuery.class).addSynchronizedEntityClass(Lancamento.class),
+                        idLancamento, null, null, colunas).executeUpdate();
+            }
+        }
+        if (linhas.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] linha = (Object[]) linhas.get(0);
+        return Optional.of(new LancamentoProjecao(((Number) linha[0]).longValue(), (String) linha[1],
+                ((Number) linha[2]).intValue(), ((Number) linha[3]).intValue(), (BigDecimal) linha[4],
+                linha[5] == null ? null : ((Number) linha[5]).longValue(),
+                linha[6] == null ? null : TipoLancamento.valueOf((String) linha[6]),
+                linha[7] == null ? null : StatusLancamento.valueOf((String) linha[7]),
+                ((Number) linha[8]).longValue()));
+    }
+
+    private static Query parametros(Query query, Long idLancamento, Long idUsuario, Long versao,
+                                    Map<String, Object> colunas) {
+        query.setParameter("id", idLancamento);
+        if (idUsuario != null) {
+            query.setParameter("idUsuario", idUsuario);
+        }
+        if (versao != null) {
+            query.setParameter("versao", versao);
+        }
+        colunas.forEach(query::setParameter);
+        return query;
+    }
+
+    private void travarNoCache(Long idLancamento) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Lancamento.class);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        EntityDataAccess cache = persister.getCacheAccessStrategy();
+        Object chave = cache.generateCacheKey(idLancamento, persister, session.getFactory(), session.getTenantIdentifier());
+        SoftLock trava = cache.lockItem(session, chave, null);
+        session.getActionQueue().registerProcess((sucesso, sessao) -> cache.unlockItem(sessao, chave, trava));
+    }
+
+    private boolean postgres() {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> connection.isWrapperFor(PGConnection.class));
+    }
+
+    private int executarEmLote(Query query) {
+        entityManager.flush();
+        int afetados = query.executeUpdate();
+        entityManager.clear();
+        return afetados;
+    }
+
+    private Predicate[] filtrarEmLote(CriteriaBuilder cb, Root<Lancamento> lancamento, Lancamento filtro,
+                                      Collection<Long> ids, StatusLancamento statusDiferenteDe) {
+        Objects.requireNonNull(filtro.getUsuario());
+        List<Predicate> predicados = filtrar(cb, lancamento, filtro);
+        if (ids != null && !ids.isEmpty()) {
+            predicados.add(lancamento.get("id").in(ids));
+        }
+        if (statusDiferenteDe != null) {
+            predicados.add(cb.notEqual(lancamento.get("statusLancamento"), statusDiferenteDe));
+        }
+        return predicados.toArray(new Predicate[0]);
+    }
+
+    /**
+     * No PostgreSQL os lançamentos são enviados pelo protocolo COPY, com os ids tirados do mesmo gerador da entidade (um
+     * {@code nextval} a cada 50, como no {@code persist}); nos demais bancos são persistidos com o batching JDBC do
+     * Hibernate, descarregando e limpando o contexto a cada lote.
+     */
+    @Override
+    public int inserirEmLote(List<Lancamento> lancamentos, int tamanhoLote) {
+        Session session = entityManager.unwrap(Session.class);
+        boolean postgres = postgres();
+        long inicio = System.nanoTime();
+        if (postgres) {
+            session.flush();
+            gerarIds(lancamentos);
+            session.doWork(connection -> copiar(connection.unwrap(PGConnection.class), lancamentos));
+        } else {
+            for (int i = 0; i < lancamentos.size(); i++) {
+                entityManager.persist(lancamentos.get(i));
+                if ((i + 1) % tamanhoLote == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        long duracao = Math.max(System.nanoTime() - inicio, 1);
+        log.info("{} lançamentos inseridos via {} em {} ms ({} linhas/s)", lancamentos.size(),
+                postgres ? "COPY" : "batch JDBC", TimeUnit.NANOSECONDS.toMillis(duracao),
+                lancamentos.size() * TimeUnit.SECONDS.toNanos(1) / duracao);
+        return lancamentos.size();
+    }
+
+    private void gerarIds(List<Lancamento> lancamentos) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        IdentifierGenerator gerador = session.getFactory().getMetamodel().entityPersister(Lancamento.class)
+                .getIdentifierGenerator();
+        for (Lancamento lancamento : lancamentos) {
+            lancamento.setId((Long) gerador.generate(session, lancamento));
+        }
+    }
+
+    private void copiar(PGConnection connection, List<Lancamento> lancamentos) throws SQLException {
+        StringBuilder csv = new StringBuilder(lancamentos.size() * 72);
+        for (Lancamento lancamento : lancamentos) {
+            csv.append(lancamento.getId()).append(',')
+                    .append(valorCopy(lancamento.getDescricao())).append(',')
+                    .append(lancamento.getMes()).append(',')
+                    .append(lancamento.getAno()).append(',')
+                    .append(lancamento.getUsuario().getId()).append(',')
+                    .append(lancamento.getValor().toPlainString()).append(',')
+                    .append(lancamento.getDataCadastro() == null ? "" : lancamento.getDataCadastro().toString()).append(',')
+                    .append(lancamento.getTipoLancamento()).append(',')
+                    .append(lancamento.getStatusLancamento()).append('\n');
+        }
+        try {
+            connection.getCopyAPI().copyIn("copy financas.lancamento " +
+                    "(id, descricao, mes, ano, id_usuario, valor, data_cadastro, tipo, status) " +
+                    "from stdin with (format csv)", new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("Falha ao enviar lançamentos pelo COPY.", e);
+        }
+    }
+
+    private static String valorCopy(String valor) {
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Percorre os lançamentos do usuário com um cursor do driver ({@code fetchSize} = tamanhoLote) e limpa o
+     * contexto de persistência a cada lote, mantendo o uso de memória constante independente do volume. A leitura
+     * não passa pelo cache de segundo nível para não expulsar dele os lançamentos consultados com frequência.
+     */
+    @Override
+    public long percorrerPorUsuario(Long idUsuario, int tamanhoLote, Consumer<Lancamento> consumidor) {
+        long lidos = 0;
+        try (Stream<Lancamento> lancamentos = entityManager
+                .createQuery("select l from Lancamento l where l.usuario.id = :idUsuario " +
+                        "order by l.ano, l.mes, l.id", Lancamento.class)
+                .setParameter("idUsuario", idUsuario)
+                .setHint(QueryHints.HINT_FETCH_SIZE, tamanhoLote)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()) {
+            Iterator<Lancamento> iterator = lancamentos.iterator();
+            while (iterator.hasNext()) {
+                consumidor.accept(iterator.next());
+                if (++lidos % tamanhoLote == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        entityManager.clear();
+        return lidos;
+    }
+
+    @Override
+    public void criarParticao(int ano) {
+        if (!postgres()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement comando = connection.prepareStatement("select financas.criar_particao_lancamento(?)")) {
+                comando.setInt(1, ano);
+                comando.execute();
+            }
+        });
+    }
+
+    private List<Predicate> filtrar(CriteriaBuilder cb, Root<Lancamento> lancamento, Lancamento filtro) {
+        List<Predicate> predicados = new ArrayList<>();
+        if (filtro.getDescricao() != null) {
+            predicados.add(cb.like(cb.lower(lancamento.get("descricao")),
+                    "%" + escaparLike(filtro.getDescricao().toLowerCase()) + "%", '\\'));
+        }
+        if (filtro.getMes() != null) {
+            predicados.add(cb.equal(lancamento.get("mes"), filtro.getMes()));
+        }
+        if (filtro.getAno() != null) {
+            predicados.add(cb.equal(lancamento.get("ano"), filtro.getAno()));
+        }
+        if (filtro.getTipoLancamento() != null) {
+            predicados.add(cb.equal(lancamento.get("tipoLancamento"), filtro.getTipoLancamento()));
+        }
+        if (filtro.getStatusLancamento() != null) {
+            predicados.add(cb.equal(lancamento.get("statusLancamento"), filtro.getStatusLancamento()));
+        }
+        if (filtro.getUsuario() != null) {
+            predicados.add(cb.equal(lancamento.get("usuario").get("id"), filtro.getUsuario().getId()));
+        }
+        return predicados;
+    }
+
+    /**
+     * A Criteria não gera a comparação de tuplas {@code (ano, mes, id) > (?, ?, ?)}; o {@code ano >= ?} redundante dá
+     * ao planejador o início da faixa no índice (id_usuario, ano, mes, id), que a forma expandida com {@code or} esconde.
+     */
+    private Predicate aposChave(CriteriaBuilder cb, Root<Lancamento> lancamento, ChaveLancamento chave) {
+        Path<Integer> ano = lancamento.get("ano");
+        Path<Integer> mes = lancamento.get("mes");
+        Path<Long> id = lancamento.get("id");
+        return cb.and(
+                cb.greaterThanOrEqualTo(ano, chave.getAno()),
+                cb.or(
+                        cb.greaterThan(ano, chave.getAno()),
+                        cb.and(cb.equal(ano, chave.getAno()), cb.greaterThan(mes, chave.getMes())),
+                        cb.and(cb.equal(ano, chave.getAno()), cb.equal(mes, chave.getMes()), cb.greaterThan(id, chave.getId()))));
+    }
+
+    static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,40 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Base dos repositórios R2DBC: cada consulta pega uma conexão do pool, emite as linhas conforme a demanda de quem
+ * assina e devolve a conexão ao terminar, falhar ou ser cancelada.
+ */
+abstract class RepositorioR2dbc {
+
+    private final ConnectionFactory connectionFactory;
+
+    RepositorioR2dbc(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * @param tamanhoLote linhas buscadas por vez com um cursor no banco; 0 traz o resultado inteiro
+     */
+    <T> Flux<T> consultar(String sql, List<Object> parametros, int tamanhoLote, BiFunction<Row, RowMetadata, T> mapeamento) {
+        return Flux.usingWhen(connectionFactory.create(), conexao -> {
+            Statement statement = conexao.createStatement(sql);
+            for (int i = 0; i < parametros.size(); i++) {
+                statement.bind(i, parametros.get(i));
+            }
+            if (tamanhoLote > 0) {
+                statement.fetchSize(tamanhoLote);
+            }
+            return Flux.from(statement.execute()).concatMap(resultado -> resultado.map(mapeamento));
+        }, Connection::close);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+/**
+ * Saldo e versão do usuário sobre R2DBC, para a API reativa.
+ */
+public class SaldoUsuarioReativoRepository extends RepositorioR2dbc {
+
+    public SaldoUsuarioReativoRepository(ConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    /**
+     * Numa só consulta confirma que o usuário existe e traz o saldo e a versão, zerados enquanto ele não tiver
+     * lançamentos; vazio quando o usuário não existe.
+     */
+    public Mono<SaldoUsuario> obterPorUsuario(Long idUsuario) {
+        return consultar("select u.id, s.valor, s.versao from financas.usuario u " +
+                "left join financas.saldo_usuario s on s.id_usuario = u.id where u.id = $1",
+                Collections.singletonList(idUsuario), 0, (linha, metadados) -> {
+                    BigDecimal valor = linha.get("valor", BigDecimal.class);
+                    Long versao = linha.get("versao", Long.class);
+                    return SaldoUsuario.builder()
+                            .idUsuario(linha.get("id", Long.class))
+                            .valor(valor != null ? valor : BigDecimal.ZERO)
+                            .versao(versao != null ? versao : 0L)
+                            .build();
+                }).next();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long>, SaldoUsuarioRepositoryCustom {
+
+    @Modifying
+    @Query(value = "update SaldoUsuario s set s.versao = s.versao + 1 where s.idUsuario in :idsUsuarios")
+    int incrementarVersao(@Param("idsUsuarios") Collection<Long> idsUsuarios);
+
+    @Query(value = "select s.versao from SaldoUsuario s where s.idUsuario = :idUsuario")
+    Optional<Long> obterVersao(@Param("idUsuario") Long idUsuario);
+
+    /**
+     * Trava o saldo até o fim da transação: um {@code adicionarAoSaldo} concorrente espera o commit, e a soma feita
+     * depois da trava já enxerga os lançamentos de quem a tinha antes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select s from SaldoUsuario s where s.idUsuario = :idUsuario")
+    Optional<SaldoUsuario> travarPorUsuario(@Param("idUsuario") Long idUsuario);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select s from SaldoUsuario s")
+    List<SaldoUsuario> travarTodos();
+}
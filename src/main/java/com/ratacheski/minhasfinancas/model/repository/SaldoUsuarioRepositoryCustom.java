@@ -0,0 +1,11 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+
+public interface SaldoUsuarioRepositoryCustom {
+
+    /**
+     * Soma o delta e incrementa a versão numa única instrução, criando a linha na primeira escrita do usuário.
+     */
+    int adicionarAoSaldo(Long idUsuario, BigDecimal delta);
+}
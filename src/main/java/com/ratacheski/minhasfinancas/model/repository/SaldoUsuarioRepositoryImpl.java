@@ -0,0 +1,46 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.postgresql.PGConnection;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.math.BigDecimal;
+
+/**
+ * Um insert nativo sem tabelas declaradas faz o Hibernate esvaziar todas as regiões do cache de segundo nível; aqui a
+ * tabela afetada é informada e os caches de usuário e lançamento são preservados.
+ */
+public class SaldoUsuarioRepositoryImpl implements SaldoUsuarioRepositoryCustom {
+
+    private static final String UPSERT_POSTGRES =
+            "insert into financas.saldo_usuario as s (id_usuario, valor, versao) values (:idUsuario, :delta, 1) " +
+            "on conflict (id_usuario) do update set valor = s.valor + excluded.valor, versao = s.versao + 1";
+
+    private static final String MERGE_H2 =
+            "merge into financas.saldo_usuario s " +
+            "using (select cast(:idUsuario as bigint) as id_usuario, cast(:delta as numeric(16, 2)) as valor) d " +
+            "on s.id_usuario = d.id_usuario " +
+            "when matched then update set s.valor = s.valor + d.valor, s.versao = s.versao + 1 " +
+            "when not matched then insert (id_usuario, valor, versao) values (d.id_usuario, d.valor, 1)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int adicionarAoSaldo(Long idUsuario, BigDecimal delta) {
+        return entityManager
+                .createNativeQuery(postgres() ? UPSERT_POSTGRES : MERGE_H2)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(SaldoUsuario.class)
+                .setParameter("idUsuario", idUsuario)
+                .setParameter("delta", delta)
+                .executeUpdate();
+    }
+
+    private boolean postgres() {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> connection.isWrapperFor(PGConnection.class));
+    }
+}
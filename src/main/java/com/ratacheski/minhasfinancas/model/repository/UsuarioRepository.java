@@ -2,10 +2,21 @@ package com.ratacheski.minhasfinancas.model.repository;
 
 import com.ratacheski.minhasfinancas.model.entity.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     boolean existsByEmail(String email);
     Optional<Usuario> findByEmail(String email);
+
+    /**
+     * Lê só a coluna de e-mail com um cursor do driver; deve ser consumido dentro de uma transação e fechado.
+     */
+    @Query("select u.email from Usuario u")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    Stream<String> listarEmails();
 }
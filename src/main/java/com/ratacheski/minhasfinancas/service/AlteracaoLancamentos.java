@@ -0,0 +1,26 @@
+package com.ratacheski.minhasfinancas.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Evento publicado pelas operações de escrita de lançamentos; os ouvintes o recebem após o commit.
+ * Nas operações em lote e na importação os ids não são conhecidos e a lista vem vazia.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AlteracaoLancamentos {
+
+    public enum Operacao {
+        INCLUSAO, ALTERACAO, EXCLUSAO, RECONCILIACAO
+    }
+
+    private final Long idUsuario;
+    private final Operacao operacao;
+    private final List<Long> ids;
+    private final int quantidade;
+}
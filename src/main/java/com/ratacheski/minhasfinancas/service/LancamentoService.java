@@ -1,27 +1,98 @@
 package com.ratacheski.minhasfinancas.service;
 
+import com.ratacheski.minhasfinancas.exception.ConflitoVersaoException;
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensal;
 import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
 import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import com.ratacheski.minhasfinancas.model.repository.ChaveLancamento;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LancamentoService {
 
     Lancamento salvarLancamento(Lancamento lancamento);
 
+    int importarLancamentos(List<Lancamento> lancamentos);
+
+    /**
+     * Divide o valor do lançamento em parcelas nos meses seguintes ao informado; a diferença de centavos fica nas
+     * primeiras parcelas.
+     */
+    List<Lancamento> salvarParcelado(Lancamento lancamento, int parcelas);
+
+    /**
+     * Repete o lançamento, com o mesmo valor, nos meses seguintes ao informado.
+     */
+    List<Lancamento> salvarRecorrente(Lancamento lancamento, int meses);
+
     Lancamento atualizarLancamento(Lancamento lancamento);
 
+    /**
+     * Altera apenas os campos não nulos de {@code alteracoes}, sem ler o lançamento antes, e só se ele for de
+     * {@code idUsuario}. Com {@code versao} informada a alteração só é aplicada se a versão gravada for a mesma, senão
+     * lança {@link ConflitoVersaoException}.
+     *
+     * @return o lançamento com o novo estado e a nova versão; vazio se não existir ou for de outro usuário
+     */
+    Optional<Lancamento> atualizarParcialmente(Long idLancamento, Long idUsuario, Long versao, Lancamento alteracoes);
+
     void removerLancamento(Lancamento lancamento);
 
     List<Lancamento> buscarLancamentos(Lancamento lancamentoFiltro);
 
+    Slice<LancamentoProjecao> buscarLancamentos(Lancamento lancamentoFiltro, ChaveLancamento chave, int limite);
+
+    long exportarLancamentos(Long idUsuario, Consumer<Lancamento> consumidor);
+
     void atualizarStatusLancamento(Lancamento lancamento, StatusLancamento statusLancamento);
 
+    int atualizarStatusEmLote(Lancamento lancamentoFiltro, List<Long> ids, StatusLancamento statusLancamento);
+
+    int removerEmLote(Lancamento lancamentoFiltro, List<Long> ids);
+
     void validarLancamento(Lancamento lancamento);
 
     Optional<Lancamento> obterPorId(Long idLancamento);
 
+    Optional<LancamentoProjecao> obterProjecaoPorId(Long idLancamento);
+
+    /**
+     * Nunca compartilha uma leitura em andamento, por isso serve para ler o saldo logo depois de um commit.
+     */
     BigDecimal obterSaldoPorUsuario(Long idUsuario);
+
+    /**
+     * Saldo e versão lidos da mesma linha, para que a ETag corresponda ao valor devolvido; saldo zero e versão 0 se o
+     * usuário nunca teve lançamentos. Chamadas simultâneas compartilham a leitura ({@code @Coalescido}), o que não
+     * separa a ETag do corpo, mas pode devolver o estado anterior a um commit recente.
+     */
+    SaldoUsuario obterSaldoEVersaoPorUsuario(Long idUsuario);
+
+    /**
+     * Versão dos lançamentos e do saldo do usuário, incrementada a cada escrita; 0 se o usuário nunca teve lançamentos.
+     * Lida antes do conteúdo que a ETag acompanha, a ETag nunca é mais nova que ele.
+     */
+    long obterVersaoPorUsuario(Long idUsuario);
+
+    List<FluxoMensal> obterFluxoMensal(Long idUsuario, YearMonth de, YearMonth ate, StatusLancamento statusLancamento);
+
+    /**
+     * Recalcula o saldo a partir dos lançamentos efetivados com a linha do saldo travada antes da soma, para que um
+     * delta concorrente não seja sobrescrito.
+     */
+    BigDecimal reconciliarSaldoPorUsuario(Long idUsuario);
+
+    List<SaldoUsuario> reconciliarSaldos();
+
+    /**
+     * Cria as partições de lançamento do ano corrente e do seguinte, para que um ano novo não caia na partição padrão.
+     */
+    void criarParticoesLancamento();
 }
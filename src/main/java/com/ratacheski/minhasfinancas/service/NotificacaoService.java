@@ -0,0 +1,11 @@
+package com.ratacheski.minhasfinancas.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface NotificacaoService {
+
+    /**
+     * Abre um fluxo de eventos com as alterações de lançamentos e o saldo atualizado do usuário.
+     */
+    SseEmitter assinar(Long idUsuario);
+}
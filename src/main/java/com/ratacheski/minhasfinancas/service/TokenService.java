@@ -0,0 +1,20 @@
+package com.ratacheski.minhasfinancas.service;
+
+import java.util.Optional;
+
+public interface TokenService {
+
+    /**
+     * Atributo da requisição com o id do usuário autenticado pelo token.
+     */
+    String ATRIBUTO_ID_USUARIO = "financas.idUsuario";
+
+    String gerarToken(Long idUsuario);
+
+    /**
+     * Confere assinatura e validade do token sem acessar a base.
+     *
+     * @return o id do usuário; vazio se o token for inválido ou estiver expirado
+     */
+    Optional<Long> validarToken(String token);
+}
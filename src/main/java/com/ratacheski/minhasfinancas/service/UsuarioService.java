@@ -3,13 +3,27 @@ package com.ratacheski.minhasfinancas.service;
 import com.ratacheski.minhasfinancas.model.entity.Usuario;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface UsuarioService {
-    Usuario autenticarUsuario(String email, String senha);
+    /**
+     * Confere a senha fora da thread chamadora; o futuro falha com {@code ErroAutenticacaoException} se o e-mail ou a
+     * senha não conferirem e com {@code RejectedExecutionException} se houver autenticações demais em andamento.
+     */
+    CompletableFuture<Usuario> autenticarUsuario(String email, String senha);
 
+    /**
+     * Lança {@code RejectedExecutionException} se houver hashes de senha demais em andamento.
+     */
     Usuario salvarUsuario(Usuario usuario);
 
     void validarEmail(String email);
 
     Optional<Usuario> obterPorId(Long id);
+
+    /**
+     * Carrega os e-mails cadastrados no filtro em memória que {@link #salvarUsuario} usa para dispensar a
+     * consulta de e-mail existente.
+     */
+    void carregarFiltroEmails();
 }
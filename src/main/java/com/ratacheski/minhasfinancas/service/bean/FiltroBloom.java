@@ -0,0 +1,68 @@
+package com.ratacheski.minhasfinancas.service.bean;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom seguro para uso concorrente. {@link #podeConter(String)} nunca responde falso para um valor
+ * adicionado; para um valor nunca adicionado responde verdadeiro com a probabilidade de falso positivo informada,
+ * enquanto a capacidade não for excedida.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray palavras;
+    private final long bits;
+    private final int funcoes;
+
+    public FiltroBloom(int capacidade, double probabilidadeFalsoPositivo) {
+        double bitsIdeais = -Math.max(1, capacidade) * Math.log(probabilidadeFalsoPositivo) / (Math.log(2) * Math.log(2));
+        this.palavras = new AtomicLongArray((int) Math.max(1, Math.ceil(bitsIdeais / Long.SIZE)));
+        this.bits = (long) palavras.length() * Long.SIZE;
+        this.funcoes = Math.max(1, (int) Math.round(bits / (double) Math.max(1, capacidade) * Math.log(2)));
+    }
+
+    public void adicionar(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            if ((palavras.get(indice) & mascara) == 0) {
+                palavras.accumulateAndGet(indice, mascara, (atual, novo) -> atual | novo);
+            }
+        }
+    }
+
+    public boolean podeConter(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres, finalizado com a mistura do MurmurHash3 para espalhar os bits baixos.
+     */
+    private static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return misturar(hash);
+    }
+
+    private static long misturar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+}
@@ -1,28 +1,71 @@
 package com.ratacheski.minhasfinancas.service.bean;
 
+import com.ratacheski.minhasfinancas.config.Coalescido;
+import com.ratacheski.minhasfinancas.exception.ConflitoVersaoException;
 import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensal;
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensalId;
 import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
 import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
 import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.EstadoSaldoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import com.ratacheski.minhasfinancas.model.projection.TotalLancamentos;
+import com.ratacheski.minhasfinancas.model.repository.ChaveLancamento;
+import com.ratacheski.minhasfinancas.model.repository.FluxoMensalRepository;
 import com.ratacheski.minhasfinancas.model.repository.LancamentoRepository;
+import com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ratacheski.minhasfinancas.service.AlteracaoLancamentos;
+import com.ratacheski.minhasfinancas.service.AlteracaoLancamentos.Operacao;
 import com.ratacheski.minhasfinancas.service.LancamentoService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class LancamentoServiceBean implements LancamentoService {
 
+    private static final int TAMANHO_LOTE_EXPORTACAO = 500;
+    private static final int TAMANHO_LOTE_IMPORTACAO = 500;
+    private static final int MAXIMO_MESES_SERIE = 120;
+    private static final String MENSAGEM_CONFLITO_VERSAO =
+            "O lançamento foi alterado por outra operação. Consulte-o novamente antes de alterar.";
+
     private LancamentoRepository lancamentoRepository;
+    private SaldoUsuarioRepository saldoUsuarioRepository;
+    private FluxoMensalRepository fluxoMensalRepository;
+    private ApplicationEventPublisher eventPublisher;
 
-    public LancamentoServiceBean(LancamentoRepository lancamentoRepository) {
+    public LancamentoServiceBean(LancamentoRepository lancamentoRepository, SaldoUsuarioRepository saldoUsuarioRepository,
+                                 FluxoMensalRepository fluxoMensalRepository, ApplicationEventPublisher eventPublisher) {
         this.lancamentoRepository = lancamentoRepository;
+        this.saldoUsuarioRepository = saldoUsuarioRepository;
+        this.fluxoMensalRepository = fluxoMensalRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -30,7 +73,110 @@ public class LancamentoServiceBean implements LancamentoService {
     public Lancamento salvarLancamento(Lancamento lancamento) {
         validarLancamento(lancamento);
         lancamento.setStatusLancamento(StatusLancamento.PENDENTE);
-        return lancamentoRepository.save(lancamento);
+        Lancamento lancamentoSalvo = lancamentoRepository.save(lancamento);
+        aplicarNoSaldo(lancamento);
+        aplicarNoFluxo(lancamento);
+        publicar(idUsuario(lancamento), Operacao.INCLUSAO, Collections.singletonList(lancamentoSalvo.getId()), 1);
+        return lancamentoSalvo;
+    }
+
+    @Override
+    @Transactional
+    public int importarLancamentos(List<Lancamento> lancamentos) {
+        Map<Long, BigDecimal> deltasPorUsuario = new HashMap<>();
+        Map<FluxoMensalId, FluxoMensal> deltasPorMes = new HashMap<>();
+        Map<Long, Integer> quantidadesPorUsuario = new HashMap<>();
+        for (int i = 0; i < lancamentos.size(); i++) {
+            Lancamento lancamento = lancamentos.get(i);
+            try {
+                validarLancamento(lancamento);
+            } catch (RegraNegocioException e) {
+                throw new RegraNegocioException("Lançamento " + (i + 1) + ": " + e.getMessage());
+            }
+            if (lancamento.getStatusLancamento() == null) {
+                lancamento.setStatusLancamento(StatusLancamento.PENDENTE);
+            }
+            deltasPorUsuario.merge(lancamento.getUsuario().getId(), contribuicaoNoSaldo(lancamento.getTipoLancamento(),
+                    lancamento.getStatusLancamento(), lancamento.getValor()), BigDecimal::add);
+            FluxoMensal delta = deltaNoFluxo(lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes(),
+                    lancamento.getTipoLancamento(), lancamento.getStatusLancamento(), lancamento.getValor(), 1L);
+            deltasPorMes.merge(chaveDoFluxo(delta), delta, LancamentoServiceBean::somarFluxo);
+            quantidadesPorUsuario.merge(lancamento.getUsuario().getId(), 1, Integer::sum);
+        }
+        int inseridos = lancamentoRepository.inserirEmLote(lancamentos, TAMANHO_LOTE_IMPORTACAO);
+        deltasPorUsuario.forEach(this::aplicarNoSaldo);
+        deltasPorMes.values().forEach(this::aplicarNoFluxo);
+        quantidadesPorUsuario.forEach((idUsuario, quantidade) ->
+                publicar(idUsuario, Operacao.INCLUSAO, List.of(), quantidade));
+        return inseridos;
+    }
+
+    @Override
+    @Transactional
+    public List<Lancamento> salvarParcelado(Lancamento lancamento, int parcelas) {
+        validarSerie(lancamento, parcelas);
+        if (lancamento.getValor().compareTo(BigDecimal.valueOf(parcelas).movePointLeft(2)) < 0) {
+            throw new RegraNegocioException("Informe um valor de ao menos um centavo por parcela.");
+        }
+        return salvarSerie(lancamento, dividirValor(lancamento.getValor(), parcelas), true);
+    }
+
+    @Override
+    @Transactional
+    public List<Lancamento> salvarRecorrente(Lancamento lancamento, int meses) {
+        validarSerie(lancamento, meses);
+        return salvarSerie(lancamento, Collections.nCopies(meses, lancamento.getValor()), false);
+    }
+
+    private void validarSerie(Lancamento lancamento, int meses) {
+        validarLancamento(lancamento);
+        if (meses < 2 || meses > MAXIMO_MESES_SERIE) {
+            throw new RegraNegocioException("Informe entre 2 e " + MAXIMO_MESES_SERIE + " meses.");
+        }
+    }
+
+    /**
+     * Gera um lançamento por mês a partir do mês e ano do modelo e os grava em um único lote, aplicando o saldo uma vez.
+     */
+    private List<Lancamento> salvarSerie(Lancamento modelo, List<BigDecimal> valores, boolean numerarParcelas) {
+        YearMonth periodo = YearMonth.of(modelo.getAno(), modelo.getMes());
+        List<Lancamento> lancamentos = new ArrayList<>(valores.size());
+        for (int i = 0; i < valores.size(); i++, periodo = periodo.plusMonths(1)) {
+            lancamentos.add(Lancamento.builder()
+                    .descricao(numerarParcelas
+                            ? modelo.getDescricao() + " (" + (i + 1) + "/" + valores.size() + ")"
+                            : modelo.getDescricao())
+                    .mes(periodo.getMonthValue())
+                    .ano(periodo.getYear())
+                    .usuario(modelo.getUsuario())
+                    .valor(valores.get(i))
+                    .dataCadastro(modelo.getDataCadastro())
+                    .tipoLancamento(modelo.getTipoLancamento())
+                    .statusLancamento(StatusLancamento.PENDENTE)
+                    .build());
+        }
+        List<Lancamento> lancamentosSalvos = lancamentoRepository.saveAll(lancamentos);
+        BigDecimal delta = BigDecimal.ZERO;
+        for (Lancamento lancamento : lancamentos) {
+            delta = delta.add(contribuicaoNoSaldo(lancamento.getTipoLancamento(), lancamento.getStatusLancamento(),
+                    lancamento.getValor()));
+        }
+        aplicarNoSaldo(modelo.getUsuario().getId(), delta);
+        lancamentos.forEach(this::aplicarNoFluxo);
+        publicar(modelo.getUsuario().getId(), Operacao.INCLUSAO,
+                lancamentosSalvos.stream().map(Lancamento::getId).collect(Collectors.toList()), lancamentosSalvos.size());
+        return lancamentosSalvos;
+    }
+
+    static List<BigDecimal> dividirValor(BigDecimal valor, int parcelas) {
+        BigDecimal[] divisao = valor.setScale(2, RoundingMode.HALF_EVEN).movePointRight(2)
+                .divideAndRemainder(BigDecimal.valueOf(parcelas));
+        int resto = divisao[1].intValueExact();
+        List<BigDecimal> valores = new ArrayList<>(parcelas);
+        for (int i = 0; i < parcelas; i++) {
+            valores.add((i < resto ? divisao[0].add(BigDecimal.ONE) : divisao[0]).movePointLeft(2));
+        }
+        return valores;
     }
 
     @Override
@@ -38,14 +184,95 @@ public class LancamentoServiceBean implements LancamentoService {
     public Lancamento atualizarLancamento(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
         validarLancamento(lancamento);
-        return lancamentoRepository.save(lancamento);
+        Optional<EstadoSaldoLancamento> estadoAnterior = lancamentoRepository.obterEstadoSaldoPorId(lancamento.getId());
+        if (lancamento.getVersao() == null) {
+            estadoAnterior.ifPresent(estado -> lancamento.setVersao(estado.getVersao()));
+        }
+        Lancamento lancamentoAtualizado;
+        try {
+            lancamentoAtualizado = lancamentoRepository.save(lancamento);
+            lancamentoRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflitoVersaoException(MENSAGEM_CONFLITO_VERSAO);
+        }
+        Long idUsuario = idUsuario(lancamento);
+        BigDecimal delta = contribuicaoNoSaldo(lancamento.getTipoLancamento(), lancamento.getStatusLancamento(), lancamento.getValor());
+        if (estadoAnterior.isPresent() && Objects.equals(idUsuario, estadoAnterior.get().getIdUsuario())) {
+            delta = delta.subtract(contribuicaoNoSaldo(estadoAnterior.get()));
+        } else {
+            estadoAnterior.ifPresent(estado -> aplicarNoSaldo(estado.getIdUsuario(), contribuicaoNoSaldo(estado).negate()));
+        }
+        aplicarNoSaldo(idUsuario, delta);
+        atualizarNoFluxo(estadoAnterior.orElse(null), lancamento);
+        estadoAnterior.filter(estado -> !Objects.equals(idUsuario, estado.getIdUsuario()))
+                .ifPresent(estado -> publicar(estado.getIdUsuario(), Operacao.EXCLUSAO, List.of(lancamento.getId()), 1));
+        publicar(idUsuario, Operacao.ALTERACAO, List.of(lancamento.getId()), 1);
+        return lancamentoAtualizado;
+    }
+
+    @Override
+    @Transactional
+    public Optional<Lancamento> atualizarParcialmente(Long idLancamento, Long idUsuario, Long versao,
+                                                      Lancamento alteracoes) {
+        Objects.requireNonNull(idLancamento);
+        Objects.requireNonNull(idUsuario);
+        validarAlteracoes(alteracoes);
+        Optional<LancamentoProjecao> estadoAnterior =
+                lancamentoRepository.atualizarParcialmente(idLancamento, idUsuario, versao, alteracoes);
+        if (estadoAnterior.isEmpty()) {
+            if (versao != null && lancamentoRepository.existsByIdAndUsuarioId(idLancamento, idUsuario)) {
+                throw new ConflitoVersaoException(MENSAGEM_CONFLITO_VERSAO);
+            }
+            return Optional.empty();
+        }
+        LancamentoProjecao anterior = estadoAnterior.get();
+        Lancamento lancamento = Lancamento.builder()
+                .id(idLancamento)
+                .descricao(Optional.ofNullable(alteracoes.getDescricao()).orElse(anterior.getDescricao()))
+                .mes(Optional.ofNullable(alteracoes.getMes()).orElse(anterior.getMes()))
+                .ano(Optional.ofNullable(alteracoes.getAno()).orElse(anterior.getAno()))
+                .valor(Optional.ofNullable(alteracoes.getValor()).orElse(anterior.getValor()))
+                .usuario(anterior.getIdUsuario() == null ? null : Usuario.builder().id(anterior.getIdUsuario()).build())
+                .tipoLancamento(Optional.ofNullable(alteracoes.getTipoLancamento()).orElse(anterior.getTipoLancamento()))
+                .statusLancamento(Optional.ofNullable(alteracoes.getStatusLancamento()).orElse(anterior.getStatusLancamento()))
+                .versao(anterior.getVersao() + 1)
+                .build();
+        aplicarNoSaldo(anterior.getIdUsuario(), contribuicaoNoSaldo(lancamento.getTipoLancamento(),
+                lancamento.getStatusLancamento(), lancamento.getValor()).subtract(contribuicaoNoSaldo(anterior)));
+        atualizarNoFluxo(anterior, lancamento);
+        publicar(anterior.getIdUsuario(), Operacao.ALTERACAO, List.of(idLancamento), 1);
+        return Optional.of(lancamento);
+    }
+
+    private void validarAlteracoes(Lancamento alteracoes) {
+        if (alteracoes.getDescricao() == null && alteracoes.getMes() == null && alteracoes.getAno() == null
+                && alteracoes.getValor() == null && alteracoes.getTipoLancamento() == null
+                && alteracoes.getStatusLancamento() == null) {
+            throw new RegraNegocioException("Informe ao menos um campo a alterar.");
+        }
+        if (alteracoes.getDescricao() != null && alteracoes.getDescricao().trim().equals("")) {
+            throw new RegraNegocioException("Informe uma descrição válida.");
+        }
+        if (alteracoes.getMes() != null && (alteracoes.getMes() < 1 || alteracoes.getMes() > 12)) {
+            throw new RegraNegocioException("Informe um mês válido.");
+        }
+        if (alteracoes.getAno() != null && alteracoes.getAno().toString().length() != 4) {
+            throw new RegraNegocioException("Informe um ano válido.");
+        }
+        if (alteracoes.getValor() != null && alteracoes.getValor().compareTo(BigDecimal.ZERO) < 1) {
+            throw new RegraNegocioException("Informe um valor válido positivo.");
+        }
     }
 
     @Override
     @Transactional
     public void removerLancamento(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
+        Optional<EstadoSaldoLancamento> estadoAnterior = lancamentoRepository.obterEstadoSaldoPorId(lancamento.getId());
         lancamentoRepository.delete(lancamento);
+        estadoAnterior.ifPresent(estado -> aplicarNoSaldo(estado.getIdUsuario(), contribuicaoNoSaldo(estado).negate()));
+        estadoAnterior.ifPresent(this::estornarDoFluxo);
+        estadoAnterior.ifPresent(estado -> publicar(estado.getIdUsuario(), Operacao.EXCLUSAO, List.of(lancamento.getId()), 1));
     }
 
     @Override
@@ -58,11 +285,76 @@ public class LancamentoServiceBean implements LancamentoService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<LancamentoProjecao> buscarLancamentos(Lancamento lancamentoFiltro, ChaveLancamento chave, int limite) {
+        return lancamentoRepository.buscarAposChave(lancamentoFiltro, chave, limite);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportarLancamentos(Long idUsuario, Consumer<Lancamento> consumidor) {
+        return lancamentoRepository.percorrerPorUsuario(idUsuario, TAMANHO_LOTE_EXPORTACAO, consumidor);
+    }
+
+    @Override
+    @Transactional
     public void atualizarStatusLancamento(Lancamento lancamento, StatusLancamento statusLancamento) {
         lancamento.setStatusLancamento(statusLancamento);
         atualizarLancamento(lancamento);
     }
 
+    @Override
+    @Transactional
+    public int atualizarStatusEmLote(Lancamento lancamentoFiltro, List<Long> ids, StatusLancamento statusLancamento) {
+        Objects.requireNonNull(statusLancamento);
+        validarOperacaoEmLote(lancamentoFiltro, ids);
+        List<TotalLancamentos> totais = lancamentoRepository.totalizarEmLote(lancamentoFiltro, ids, statusLancamento);
+        int atualizados = lancamentoRepository.atualizarStatusEmLote(lancamentoFiltro, ids, statusLancamento);
+        Map<Long, BigDecimal> deltasPorUsuario = new HashMap<>();
+        for (TotalLancamentos total : totais) {
+            BigDecimal delta = contribuicaoNoSaldo(total.getTipoLancamento(), statusLancamento, total.getValor())
+                    .subtract(contribuicaoNoSaldo(total.getTipoLancamento(), total.getStatusLancamento(), total.getValor()));
+            deltasPorUsuario.merge(total.getIdUsuario(), delta, BigDecimal::add);
+            aplicarNoFluxo(deltaNoFluxo(total.getIdUsuario(), total.getAno(), total.getMes(), total.getTipoLancamento(),
+                    total.getStatusLancamento(), total.getValor().negate(), -total.getQuantidade()));
+            aplicarNoFluxo(deltaNoFluxo(total.getIdUsuario(), total.getAno(), total.getMes(), total.getTipoLancamento(),
+                    statusLancamento, total.getValor(), total.getQuantidade()));
+        }
+        deltasPorUsuario.forEach(this::aplicarNoSaldo);
+        publicar(lancamentoFiltro.getUsuario().getId(), Operacao.ALTERACAO, ids == null ? List.of() : ids, atualizados);
+        return atualizados;
+    }
+
+    @Override
+    @Transactional
+    public int removerEmLote(Lancamento lancamentoFiltro, List<Long> ids) {
+        validarOperacaoEmLote(lancamentoFiltro, ids);
+        List<TotalLancamentos> totais = lancamentoRepository.totalizarEmLote(lancamentoFiltro, ids, null);
+        int removidos = lancamentoRepository.removerEmLote(lancamentoFiltro, ids);
+        Map<Long, BigDecimal> deltasPorUsuario = new HashMap<>();
+        for (TotalLancamentos total : totais) {
+            deltasPorUsuario.merge(total.getIdUsuario(),
+                    contribuicaoNoSaldo(total.getTipoLancamento(), total.getStatusLancamento(), total.getValor()).negate(),
+                    BigDecimal::add);
+            aplicarNoFluxo(deltaNoFluxo(total.getIdUsuario(), total.getAno(), total.getMes(), total.getTipoLancamento(),
+                    total.getStatusLancamento(), total.getValor().negate(), -total.getQuantidade()));
+        }
+        deltasPorUsuario.forEach(this::aplicarNoSaldo);
+        publicar(lancamentoFiltro.getUsuario().getId(), Operacao.EXCLUSAO, ids == null ? List.of() : ids, removidos);
+        return removidos;
+    }
+
+    private void validarOperacaoEmLote(Lancamento lancamentoFiltro, List<Long> ids) {
+        if (lancamentoFiltro.getUsuario() == null || lancamentoFiltro.getUsuario().getId() == null) {
+            throw new RegraNegocioException("Informe um usuário.");
+        }
+        boolean possuiFiltro = lancamentoFiltro.getMes() != null || lancamentoFiltro.getAno() != null
+                || lancamentoFiltro.getTipoLancamento() != null || lancamentoFiltro.getStatusLancamento() != null;
+        if ((ids == null || ids.isEmpty()) && !possuiFiltro) {
+            throw new RegraNegocioException("Informe os lançamentos ou um filtro para a operação em lote.");
+        }
+    }
+
     @Override
     public void validarLancamento(Lancamento lancamento) {
         if (lancamento.getDescricao() == null || lancamento.getDescricao().trim().equals("")) {
@@ -95,9 +387,48 @@ public class LancamentoServiceBean implements LancamentoService {
         return lancamentoRepository.findById(idLancamento);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LancamentoProjecao> obterProjecaoPorId(Long idLancamento) {
+        return lancamentoRepository.obterProjecaoPorId(idLancamento);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BigDecimal obterSaldoPorUsuario(Long idUsuario) {
+        return saldoUsuarioRepository.findById(idUsuario)
+                .map(SaldoUsuario::getValor)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    @Override
+    @Coalescido
+    @Transactional(readOnly = true)
+    public SaldoUsuario obterSaldoEVersaoPorUsuario(Long idUsuario) {
+        return saldoUsuarioRepository.findById(idUsuario)
+                .orElseGet(() -> SaldoUsuario.builder().idUsuario(idUsuario).valor(BigDecimal.ZERO).versao(0L).build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long obterVersaoPorUsuario(Long idUsuario) {
+        return saldoUsuarioRepository.obterVersao(idUsuario).orElse(0L);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FluxoMensal> obterFluxoMensal(Long idUsuario, YearMonth de, YearMonth ate, StatusLancamento statusLancamento) {
+        if (de.isAfter(ate)) {
+            throw new RegraNegocioException("Informe um período válido.");
+        }
+        return fluxoMensalRepository.buscarPorUsuarioEPeriodo(idUsuario, statusLancamento,
+                de.getYear() * 100 + de.getMonthValue(), ate.getYear() * 100 + ate.getMonthValue());
+    }
+
+    @Override
+    @Transactional
+    public BigDecimal reconciliarSaldoPorUsuario(Long idUsuario) {
+        saldoUsuarioRepository.travarPorUsuario(idUsuario);
         BigDecimal receitas = lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(idUsuario, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
         BigDecimal despesas = lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(idUsuario, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
 
@@ -106,6 +437,162 @@ public class LancamentoServiceBean implements LancamentoService {
         if (despesas == null)
             despesas = BigDecimal.ZERO;
 
-        return receitas.subtract(despesas);
+        BigDecimal saldo = receitas.subtract(despesas);
+        saldoUsuarioRepository.save(SaldoUsuario.builder().idUsuario(idUsuario).valor(saldo).build());
+        saldoUsuarioRepository.incrementarVersao(List.of(idUsuario));
+        publicar(idUsuario, Operacao.RECONCILIACAO, List.of(), 0);
+        return saldo;
+    }
+
+    @Override
+    @Transactional
+    public List<SaldoUsuario> reconciliarSaldos() {
+        Map<Long, SaldoUsuario> saldosGravados = saldoUsuarioRepository.travarTodos().stream()
+                .collect(Collectors.toMap(SaldoUsuario::getIdUsuario, Function.identity()));
+        List<SaldoUsuario> saldosCorrigidos = new ArrayList<>();
+
+        for (SaldoUsuario saldoCalculado : lancamentoRepository.calcularSaldosEfetivados()) {
+            SaldoUsuario saldoGravado = saldosGravados.remove(saldoCalculado.getIdUsuario());
+            if (saldoGravado == null || saldoGravado.getValor().compareTo(saldoCalculado.getValor()) != 0) {
+                saldosCorrigidos.add(saldoCalculado);
+            }
+        }
+        for (SaldoUsuario saldoSemLancamentos : saldosGravados.values()) {
+            if (saldoSemLancamentos.getValor().signum() != 0) {
+                saldosCorrigidos.add(SaldoUsuario.builder()
+                        .idUsuario(saldoSemLancamentos.getIdUsuario())
+                        .valor(BigDecimal.ZERO)
+                        .build());
+            }
+        }
+
+        List<SaldoUsuario> saldosGravadosCorrigidos = saldoUsuarioRepository.saveAll(saldosCorrigidos);
+        if (!saldosCorrigidos.isEmpty()) {
+            saldoUsuarioRepository.incrementarVersao(saldosCorrigidos.stream()
+                    .map(SaldoUsuario::getIdUsuario)
+                    .collect(Collectors.toList()));
+        }
+        saldosCorrigidos.forEach(saldo -> publicar(saldo.getIdUsuario(), Operacao.RECONCILIACAO, List.of(), 0));
+        return saldosGravadosCorrigidos;
+    }
+
+    /**
+     * Roda na subida e uma vez por dia; as partições que já existem não são tocadas.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${financas.lancamento.cron-particoes:0 0 3 * * *}")
+    @Transactional
+    public void criarParticoesLancamento() {
+        int ano = Year.now().getValue();
+        lancamentoRepository.criarParticao(ano);
+        lancamentoRepository.criarParticao(ano + 1);
+    }
+
+    /**
+     * Os ouvintes anotados com {@code @TransactionalEventListener} só recebem o evento após o commit.
+     */
+    private void publicar(Long idUsuario, Operacao operacao, List<Long> ids, int quantidade) {
+        if (idUsuario == null || (quantidade == 0 && operacao != Operacao.RECONCILIACAO)) {
+            return;
+        }
+        eventPublisher.publishEvent(new AlteracaoLancamentos(idUsuario, operacao, ids, quantidade));
+    }
+
+    private void aplicarNoSaldo(Lancamento lancamento) {
+        aplicarNoSaldo(idUsuario(lancamento),
+                contribuicaoNoSaldo(lancamento.getTipoLancamento(), lancamento.getStatusLancamento(), lancamento.getValor()));
+    }
+
+    /**
+     * Aplica o delta e incrementa a versão do usuário; roda mesmo com delta zero, pois toda escrita muda a versão.
+     */
+    private void aplicarNoSaldo(Long idUsuario, BigDecimal delta) {
+        if (idUsuario == null) {
+            return;
+        }
+        saldoUsuarioRepository.adicionarAoSaldo(idUsuario, delta);
+    }
+
+    private void aplicarNoFluxo(Lancamento lancamento) {
+        Long idUsuario = idUsuario(lancamento);
+        aplicarNoFluxo(deltaNoFluxo(idUsuario, lancamento.getAno(), lancamento.getMes(), lancamento.getTipoLancamento(),
+                lancamento.getStatusLancamento(), lancamento.getValor(), 1L));
+    }
+
+    /**
+     * Quando usuário, mês, tipo e status não mudam, aplica só a diferença de valor na mesma linha do fluxo.
+     */
+    private void atualizarNoFluxo(EstadoSaldoLancamento estadoAnterior, Lancamento lancamento) {
+        FluxoMensal novo = deltaNoFluxo(idUsuario(lancamento),
+                lancamento.getAno(), lancamento.getMes(), lancamento.getTipoLancamento(),
+                lancamento.getStatusLancamento(), lancamento.getValor(), 1L);
+        if (estadoAnterior == null || estadoAnterior.getValor() == null) {
+            aplicarNoFluxo(novo);
+            return;
+        }
+        FluxoMensal anterior = deltaNoFluxo(estadoAnterior.getIdUsuario(), estadoAnterior.getAno(), estadoAnterior.getMes(),
+                estadoAnterior.getTipoLancamento(), estadoAnterior.getStatusLancamento(), estadoAnterior.getValor().negate(), -1L);
+        if (!chaveDoFluxo(anterior).equals(chaveDoFluxo(novo))) {
+            aplicarNoFluxo(anterior);
+            aplicarNoFluxo(novo);
+        } else if (novo.getValor() != null && novo.getValor().compareTo(estadoAnterior.getValor()) != 0) {
+            aplicarNoFluxo(somarFluxo(novo, anterior));
+        }
+    }
+
+    private void estornarDoFluxo(EstadoSaldoLancamento estado) {
+        if (estado.getValor() == null) {
+            return;
+        }
+        aplicarNoFluxo(deltaNoFluxo(estado.getIdUsuario(), estado.getAno(), estado.getMes(), estado.getTipoLancamento(),
+                estado.getStatusLancamento(), estado.getValor().negate(), -1L));
+    }
+
+    private void aplicarNoFluxo(FluxoMensal delta) {
+        if (delta.getIdUsuario() == null || delta.getValor() == null) {
+            return;
+        }
+        fluxoMensalRepository.adicionarAoFluxo(delta.getIdUsuario(), delta.getAno(), delta.getMes(),
+                delta.getTipoLancamento(), delta.getStatusLancamento(), delta.getValor(), delta.getQuantidade());
+    }
+
+    private static Long idUsuario(Lancamento lancamento) {
+        return lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+    }
+
+    private static FluxoMensal deltaNoFluxo(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo,
+                                            StatusLancamento status, BigDecimal valor, Long quantidade) {
+        return FluxoMensal.builder()
+                .idUsuario(idUsuario)
+                .ano(ano)
+                .mes(mes)
+                .tipoLancamento(tipo)
+                .statusLancamento(status)
+                .valor(valor)
+                .quantidade(quantidade)
+                .build();
+    }
+
+    private static FluxoMensalId chaveDoFluxo(FluxoMensal fluxo) {
+        return new FluxoMensalId(fluxo.getIdUsuario(), fluxo.getAno(), fluxo.getMes(),
+                fluxo.getTipoLancamento(), fluxo.getStatusLancamento());
+    }
+
+    private static FluxoMensal somarFluxo(FluxoMensal fluxo, FluxoMensal delta) {
+        fluxo.setValor(fluxo.getValor().add(delta.getValor()));
+        fluxo.setQuantidade(fluxo.getQuantidade() + delta.getQuantidade());
+        return fluxo;
+    }
+
+    private static BigDecimal contribuicaoNoSaldo(EstadoSaldoLancamento estado) {
+        return contribuicaoNoSaldo(estado.getTipoLancamento(), estado.getStatusLancamento(), estado.getValor());
+    }
+
+    private static BigDecimal contribuicaoNoSaldo(TipoLancamento tipo, StatusLancamento status, BigDecimal valor) {
+        if (status != StatusLancamento.EFETIVADO || valor == null) {
+            return BigDecimal.ZERO;
+        }
+        return tipo == TipoLancamento.DESPESA ? valor.negate() : valor;
     }
 }
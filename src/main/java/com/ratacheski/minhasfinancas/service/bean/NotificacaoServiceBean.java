@@ -0,0 +1,272 @@
+package com.ratacheski.minhasfinancas.service.bean;
+
+import com.ratacheski.minhasfinancas.config.AfinidadePrimario;
+import com.ratacheski.minhasfinancas.service.AlteracaoLancamentos;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import com.ratacheski.minhasfinancas.service.NotificacaoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantém as assinaturas SSE por usuário. As conexões ficam em modo assíncrono, sem ocupar uma thread do servlet, e os
+ * envios acontecem em um executor próprio. Alterações em sequência geram um único envio de saldo por janela.
+ * <p>
+ * Cada assinatura tem uma fila limitada esvaziada por uma tarefa só dela, então um cliente lento ocupa apenas a própria
+ * thread de envio. A assinatura cuja fila enche ou cujo envio passa de {@code financas.notificacao.tempo-limite-envio-ms}
+ * é descartada e encerrada. O executor de envios tem threads e fila limitadas; quando ele recusa o envio de uma
+ * assinatura, ela também é descartada.
+ */
+@Slf4j
+@Service
+public class NotificacaoServiceBean implements NotificacaoService {
+
+    private final Map<Long, Set<Assinatura>> assinaturas = new ConcurrentHashMap<>();
+    private final Set<Long> saldosPendentes = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("notificacao-"));
+    private final ThreadPoolExecutor envios;
+
+    private final LancamentoService lancamentoService;
+    private final ObjectProvider<AfinidadePrimario> afinidadePrimario;
+    private final Counter descartadas;
+    private final long tempoLimite;
+    private final long janelaSaldo;
+    private final int capacidadeFila;
+    private final long tempoLimiteEnvio;
+
+    public NotificacaoServiceBean(LancamentoService lancamentoService, ObjectProvider<AfinidadePrimario> afinidadePrimario,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${financas.notificacao.tempo-limite-ms:1800000}") long tempoLimite,
+                                  @Value("${financas.notificacao.janela-saldo-ms:250}") long janelaSaldo,
+                                  @Value("${financas.notificacao.intervalo-heartbeat-ms:30000}") long intervaloHeartbeat,
+                                  @Value("${financas.notificacao.capacidade-fila:32}") int capacidadeFila,
+                                  @Value("${financas.notificacao.tempo-limite-envio-ms:10000}") long tempoLimiteEnvio,
+                                  @Value("${financas.notificacao.threads-envio:64}") int threadsEnvio,
+                                  @Value("${financas.notificacao.capacidade-fila-envios:1024}") int capacidadeFilaEnvios) {
+        this.envios = new ThreadPoolExecutor(threadsEnvio, threadsEnvio, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacidadeFilaEnvios), new CustomizableThreadFactory("notificacao-envio-"));
+        this.envios.allowCoreThreadTimeOut(true);
+        this.lancamentoService = lancamentoService;
+        this.afinidadePrimario = afinidadePrimario;
+        this.tempoLimite = tempoLimite;
+        this.janelaSaldo = janelaSaldo;
+        this.capacidadeFila = capacidadeFila;
+        this.tempoLimiteEnvio = tempoLimiteEnvio;
+        Gauge.builder("financas.notificacao.assinaturas", this, NotificacaoServiceBean::quantidadeAssinaturas)
+                .register(meterRegistry);
+        this.descartadas = Counter.builder("financas.notificacao.descartadas")
+                .description("Assinaturas encerradas por fila cheia ou envio travado")
+                .register(meterRegistry);
+        agendador.scheduleAtFixedRate(this::enviarHeartbeat, intervaloHeartbeat, intervaloHeartbeat, TimeUnit.MILLISECONDS);
+        agendador.scheduleAtFixedRate(this::descartarEnviosTravados, tempoLimiteEnvio, tempoLimiteEnvio, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SseEmitter assinar(Long idUsuario) {
+        SseEmitter emitter = criarEmitter(tempoLimite);
+        Assinatura assinatura = new Assinatura(idUsuario, emitter);
+        assinaturas.compute(idUsuario, (id, doUsuario) -> {
+            Set<Assinatura> atualizadas = doUsuario == null ? ConcurrentHashMap.newKeySet() : doUsuario;
+            atualizadas.add(assinatura);
+            return atualizadas;
+        });
+        emitter.onCompletion(() -> removerAssinatura(assinatura));
+        emitter.onTimeout(() -> removerAssinatura(assinatura));
+        emitter.onError(e -> removerAssinatura(assinatura));
+        executar(() -> enviarSaldo(idUsuario));
+        return emitter;
+    }
+
+    protected SseEmitter criarEmitter(long tempoLimite) {
+        return new SseEmitter(tempoLimite);
+    }
+
+    public int quantidadeAssinaturas() {
+        return assinaturas.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarLancamentos(AlteracaoLancamentos alteracao) {
+        Long idUsuario = alteracao.getIdUsuario();
+        if (!assinaturas.containsKey(idUsuario)) {
+            return;
+        }
+        enviar(idUsuario, "lancamentos", alteracao);
+        if (saldosPendentes.add(idUsuario)) {
+            agendador.schedule(() -> {
+                saldosPendentes.remove(idUsuario);
+                executar(() -> enviarSaldo(idUsuario));
+            }, janelaSaldo, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+        envios.shutdownNow();
+        assinaturas.values().forEach(doUsuario -> doUsuario.forEach(assinatura -> assinatura.emitter.complete()));
+        assinaturas.clear();
+    }
+
+    /**
+     * Roda depois do commit, então a leitura não pode ser coalescida com uma que tenha começado antes dele.
+     */
+    private void enviarSaldo(Long idUsuario) {
+        if (!assinaturas.containsKey(idUsuario)) {
+            return;
+        }
+        BigDecimal saldo;
+        afinidadePrimario.ifAvailable(afinidade -> afinidade.definirUsuario(idUsuario));
+        try {
+            saldo = lancamentoService.obterSaldoPorUsuario(idUsuario);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao obter o saldo do usuário {} para notificação", idUsuario, e);
+            return;
+        } finally {
+            afinidadePrimario.ifAvailable(AfinidadePrimario::limparUsuario);
+        }
+        enviar(idUsuario, "saldo", saldo);
+    }
+
+    private void enviar(Long idUsuario, String nome, Object dados) {
+        for (Assinatura assinatura : assinaturas.getOrDefault(idUsuario, Set.of())) {
+            assinatura.enfileirar(SseEmitter.event().name(nome).data(dados, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Detecta conexões encerradas pelo cliente, que de outra forma só seriam descobertas no próximo envio.
+     */
+    private void enviarHeartbeat() {
+        assinaturas.values().forEach(doUsuario ->
+                doUsuario.forEach(assinatura -> assinatura.enfileirar(SseEmitter.event().comment(""))));
+    }
+
+    private void descartarEnviosTravados() {
+        long limite = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(tempoLimiteEnvio);
+        assinaturas.values().forEach(doUsuario -> doUsuario.forEach(assinatura -> {
+            long inicio = assinatura.inicioEnvio;
+            if (inicio != 0 && inicio - limite < 0) {
+                descartar(assinatura, "envio travado");
+            }
+        }));
+    }
+
+    /**
+     * O {@code complete} espera o envio em andamento terminar, por isso roda no executor de envios e não em quem
+     * detectou o problema. Se o executor estiver cheio, o emitter se encerra pelo tempo limite da assinatura.
+     */
+    private void descartar(Assinatura assinatura, String motivo) {
+        if (registrarDescarte(assinatura, motivo)) {
+            executar(assinatura.emitter::complete);
+        }
+    }
+
+    private boolean registrarDescarte(Assinatura assinatura, String motivo) {
+        if (!removerAssinatura(assinatura)) {
+            return false;
+        }
+        descartadas.increment();
+        log.warn("Assinatura de eventos do usuário {} descartada: {}", assinatura.idUsuario, motivo);
+        assinatura.fila.clear();
+        return true;
+    }
+
+    private boolean removerAssinatura(Assinatura assinatura) {
+        AtomicBoolean removida = new AtomicBoolean();
+        assinaturas.computeIfPresent(assinatura.idUsuario, (id, doUsuario) -> {
+            removida.set(doUsuario.remove(assinatura));
+            return doUsuario.isEmpty() ? null : doUsuario;
+        });
+        return removida.get();
+    }
+
+    private boolean executar(Runnable tarefa) {
+        try {
+            envios.execute(tarefa);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("Executor de notificações cheio ou encerrado; tarefa ignorada");
+            return false;
+        }
+    }
+
+    private final class Assinatura {
+
+        private final Long idUsuario;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> fila;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        /** {@link System#nanoTime()} do início do envio em andamento; zero quando parada. */
+        private volatile long inicioEnvio;
+
+        private Assinatura(Long idUsuario, SseEmitter emitter) {
+            this.idUsuario = idUsuario;
+            this.emitter = emitter;
+            this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        }
+
+        private void enfileirar(SseEmitter.SseEventBuilder evento) {
+            if (!fila.offer(evento)) {
+                descartar(this, "fila de envio cheia");
+                return;
+            }
+            agendarEnvio();
+        }
+
+        /**
+         * Sem envio em andamento o {@code complete} não espera ninguém, então a assinatura recusada pelo executor é
+         * encerrada aqui mesmo.
+         */
+        private void agendarEnvio() {
+            if (enviando.compareAndSet(false, true) && !executar(this::esvaziar)
+                    && registrarDescarte(this, "executor de envios cheio")) {
+                emitter.complete();
+            }
+        }
+
+        private void esvaziar() {
+            try {
+                SseEmitter.SseEventBuilder evento;
+                while ((evento = fila.poll()) != null) {
+                    inicioEnvio = System.nanoTime();
+                    emitter.send(evento);
+                    inicioEnvio = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                removerAssinatura(this);
+                fila.clear();
+            } finally {
+                inicioEnvio = 0;
+                enviando.set(false);
+            }
+            if (!fila.isEmpty()) {
+                agendarEnvio();
+            }
+        }
+    }
+}
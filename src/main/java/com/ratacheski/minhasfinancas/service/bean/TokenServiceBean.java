@@ -0,0 +1,85 @@
+package com.ratacheski.minhasfinancas.service.bean;
+
+import com.ratacheski.minhasfinancas.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Token no formato {@code idUsuario.expiraEm.assinatura}, com {@code expiraEm} em segundos desde a época e a assinatura
+ * HMAC-SHA256 dos dois primeiros campos. A aplicação não sobe sem {@code financas.token.segredo}: uma chave sorteada
+ * invalidaria os tokens a cada reinício e divergiria entre instâncias.
+ */
+@Service
+public class TokenServiceBean implements TokenService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final SecretKeySpec chave;
+    private final long validade;
+    private final ThreadLocal<Mac> mac;
+
+    public TokenServiceBean(@Value("${financas.token.segredo:}") String segredo,
+                            @Value("${financas.token.validade-ms:28800000}") long validade) {
+        if (segredo.isBlank()) {
+            throw new IllegalStateException("Configure financas.token.segredo com a chave de assinatura dos tokens.");
+        }
+        this.chave = new SecretKeySpec(segredo.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.validade = validade;
+        this.mac = ThreadLocal.withInitial(this::criarMac);
+    }
+
+    @Override
+    public String gerarToken(Long idUsuario) {
+        String conteudo = idUsuario + "." + (System.currentTimeMillis() + validade) / 1000;
+        return conteudo + "." + assinar(conteudo);
+    }
+
+    @Override
+    public Optional<Long> validarToken(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int fimConteudo = token.lastIndexOf('.');
+        int fimId = token.indexOf('.');
+        if (fimId <= 0 || fimConteudo <= fimId) {
+            return Optional.empty();
+        }
+        String conteudo = token.substring(0, fimConteudo);
+        byte[] assinatura = token.substring(fimConteudo + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(assinatura, assinar(conteudo).getBytes(StandardCharsets.US_ASCII))) {
+            return Optional.empty();
+        }
+        try {
+            long expiraEm = Long.parseLong(conteudo.substring(fimId + 1));
+            if (expiraEm * 1000 <= System.currentTimeMillis()) {
+                return Optional.empty();
+            }
+            return Optional.of(Long.valueOf(conteudo.substring(0, fimId)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String assinar(String conteudo) {
+        byte[] assinatura = mac.get().doFinal(conteudo.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(assinatura);
+    }
+
+    private Mac criarMac() {
+        try {
+            Mac instancia = Mac.getInstance(ALGORITMO);
+            instancia.init(chave);
+            return instancia;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível iniciar o HMAC dos tokens.", e);
+        }
+    }
+}
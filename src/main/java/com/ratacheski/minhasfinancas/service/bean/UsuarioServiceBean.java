@@ -5,50 +5,181 @@ import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
 import com.ratacheski.minhasfinancas.model.entity.Usuario;
 import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
 import com.ratacheski.minhasfinancas.service.UsuarioService;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * O BCrypt roda em um executor próprio com threads e fila limitadas: com a fila cheia a autenticação é recusada na hora
+ * ({@link RejectedExecutionException}) em vez de ocupar as threads das requisições.
+ */
+@Slf4j
 @Service
 public class UsuarioServiceBean implements UsuarioService {
 
+    private static final Pattern HASH_BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+    private static final String EMAIL_JA_CADASTRADO = "Já Existe um usuário cadastrado com este email.";
+    private static final String INDICE_EMAIL_UNICO = "uk_usuario_email";
+
     private UsuarioRepository usuarioRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executorHash;
+    private final FiltroBloom filtroEmails;
+    private volatile boolean filtroEmailsCarregado;
 
-    public UsuarioServiceBean(UsuarioRepository usuarioRepository) {
+    public UsuarioServiceBean(UsuarioRepository usuarioRepository,
+                              @Value("${financas.senha.custo-bcrypt:10}") int custoBcrypt,
+                              @Value("${financas.senha.threads:0}") int threads,
+                              @Value("${financas.senha.fila:64}") int fila,
+                              @Value("${financas.usuario.filtro-emails.capacidade:1000000}") int capacidadeFiltroEmails) {
         super();
         this.usuarioRepository = usuarioRepository;
+        this.filtroEmails = new FiltroBloom(capacidadeFiltroEmails, 0.01);
+        this.passwordEncoder = new BCryptPasswordEncoder(custoBcrypt);
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executorHash = new ThreadPoolExecutor(tamanho, tamanho, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), new CustomizableThreadFactory("hash-senha-"));
     }
 
+    /**
+     * Senhas gravadas antes do hash são comparadas em texto puro e, se conferirem, substituídas pelo hash.
+     */
     @Override
-    public Usuario autenticarUsuario(String email, String senha) {
+    public CompletableFuture<Usuario> autenticarUsuario(String email, String senha) {
         Optional<Usuario> usuario = usuarioRepository.findByEmail(email);
         if(usuario.isEmpty()){
-            throw new ErroAutenticacaoException("Usuário não encontrado para o email informado.");
+            return CompletableFuture.failedFuture(new ErroAutenticacaoException("Usuário não encontrado para o email informado."));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> verificarSenha(usuario.get(), senha), executorHash);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        if(!usuario.get().getSenha().equals(senha)){
+    }
+
+    private Usuario verificarSenha(Usuario encontrado, String senha) {
+        if (!senhaConfere(senha, encontrado.getSenha())) {
             throw new ErroAutenticacaoException("Senha Inválida.");
         }
-        return usuario.get();
+        if (!HASH_BCRYPT.matcher(encontrado.getSenha()).matches()) {
+            encontrado.setSenha(passwordEncoder.encode(senha));
+            usuarioRepository.save(encontrado);
+        }
+        return encontrado;
     }
 
+    private boolean senhaConfere(String senha, String senhaGravada) {
+        if (senha == null || senhaGravada == null) {
+            return false;
+        }
+        if (HASH_BCRYPT.matcher(senhaGravada).matches()) {
+            return passwordEncoder.matches(senha, senhaGravada);
+        }
+        return MessageDigest.isEqual(senha.getBytes(StandardCharsets.UTF_8), senhaGravada.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * O índice único de e-mail é a fonte da verdade, inclusive entre cadastros concorrentes e entre instâncias. A
+     * consulta prévia só é feita quando o filtro de e-mails não garante que o e-mail é novo, e serve para recusar
+     * o cadastro antes de calcular o hash da senha.
+     * <p>
+     * Não há transação em volta: o hash é calculado antes e só o {@code save} abre a sua, sem segurar uma conexão
+     * durante o BCrypt. Com o executor de hash cheio o cadastro é recusado com {@link RejectedExecutionException}.
+     */
     @Override
-    @Transactional
+    @CacheEvict(cacheNames = "usuarios", key = "#result.id")
     public Usuario salvarUsuario(Usuario usuario) {
-        validarEmail(usuario.getEmail());
-        return usuarioRepository.save(usuario);
+        if (!filtroEmailsCarregado || usuario.getEmail() == null || filtroEmails.podeConter(usuario.getEmail())) {
+            validarEmail(usuario.getEmail());
+        }
+        if (usuario.getSenha() != null) {
+            String senha = usuario.getSenha();
+            usuario.setSenha(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(senha), executorHash).join());
+        }
+        Usuario salvo;
+        try {
+            salvo = usuarioRepository.save(usuario);
+        } catch (DataIntegrityViolationException e) {
+            if (violaEmailUnico(e)) {
+                throw new RegraNegocioException(EMAIL_JA_CADASTRADO);
+            }
+            throw e;
+        }
+        if (usuario.getEmail() != null) {
+            filtroEmails.adicionar(usuario.getEmail());
+        }
+        return salvo;
+    }
+
+    /**
+     * O PostgreSQL informa só o nome do índice; o H2 informa o nome qualificado seguido da tabela e dos valores.
+     */
+    private static boolean violaEmailUnico(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        String indice = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return indice != null && indice.toLowerCase(Locale.ROOT).contains(INDICE_EMAIL_UNICO);
     }
 
     @Override
     public void validarEmail(String email) {
         boolean existe = usuarioRepository.existsByEmail(email);
         if (existe){
-            throw new RegraNegocioException("Já Existe um usuário cadastrado com este email.");
+            throw new RegraNegocioException(EMAIL_JA_CADASTRADO);
         }
     }
 
+    /**
+     * Carrega no filtro os e-mails já cadastrados. Até terminar, todo cadastro consulta o banco; os cadastros feitos
+     * durante a carga entram no filtro normalmente.
+     */
     @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregarFiltroEmails() {
+        long carregados = 0;
+        try (Stream<String> emails = usuarioRepository.listarEmails()) {
+            for (String email : (Iterable<String>) emails::iterator) {
+                filtroEmails.adicionar(email);
+                carregados++;
+            }
+        }
+        filtroEmailsCarregado = true;
+        log.info("Filtro de e-mails carregado com {} usuários", carregados);
+    }
+
+    @Override
+    @Cacheable(cacheNames = "usuarios", unless = "#result == null")
     public Optional<Usuario> obterPorId(Long id) {
         return usuarioRepository.findById(id);
     }
+
+    @PreDestroy
+    public void encerrar() {
+        executorHash.shutdownNow();
+    }
 }
@@ -0,0 +1,60 @@
+package db.migration.postgresql;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Índice de trigramas que atende o filtro {@code lower(descricao) like '%x%'} da busca de lançamentos, criado com
+ * {@code CONCURRENTLY} e fora de transação para não travar as escritas enquanto é construído. O PostgreSQL não aceita
+ * {@code CONCURRENTLY} na tabela particionada: nela o índice nasce só no pai ({@code ON ONLY}), cada partição ganha o
+ * seu de forma concorrente e é anexada a ele.
+ */
+public class V10__IndiceTrigramasDescricao extends BaseJavaMigration {
+
+    private static final String INDICE = "idx_lancamento_descricao_trgm";
+    private static final String DEFINICAO = "using gin (lower(descricao) gin_trgm_ops)";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement comando = context.getConnection().createStatement()) {
+            if (existe(comando, "select to_regclass('financas." + INDICE + "') is not null")) {
+                return;
+            }
+            if (!existe(comando, "select exists(select 1 from pg_partitioned_table " +
+                    "where partrelid = 'financas.lancamento'::regclass)")) {
+                comando.execute("create index concurrently if not exists " + INDICE + " on financas.lancamento " + DEFINICAO);
+                return;
+            }
+            List<String> particoes = new ArrayList<>();
+            try (ResultSet linhas = comando.executeQuery("select c.relname from pg_inherits i " +
+                    "join pg_class c on c.oid = i.inhrelid where i.inhparent = 'financas.lancamento'::regclass")) {
+                while (linhas.next()) {
+                    particoes.add(linhas.getString(1));
+                }
+            }
+            comando.execute("create index " + INDICE + " on only financas.lancamento " + DEFINICAO);
+            for (String particao : particoes) {
+                String indice = particao + "_descricao_trgm";
+                comando.execute("create index concurrently if not exists " + indice + " on financas." + particao + " " + DEFINICAO);
+                comando.execute("alter index financas." + INDICE + " attach partition financas." + indice);
+            }
+        }
+    }
+
+    private static boolean existe(Statement comando, String consulta) throws SQLException {
+        try (ResultSet linha = comando.executeQuery(consulta)) {
+            return linha.next() && linha.getBoolean(1);
+        }
+    }
+}
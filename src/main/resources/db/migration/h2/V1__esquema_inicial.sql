@@ -0,0 +1,44 @@
+create schema if not exists financas;
+
+create table if not exists financas.usuario
+(
+    id            bigint auto_increment not null primary key,
+    nome          varchar(150),
+    email         varchar(100),
+    senha         varchar(20),
+    data_cadastro date default current_date
+);
+
+-- O Hibernate reserva 50 ids por chamada (allocationSize); o incremento da sequence precisa acompanhar.
+create sequence if not exists financas.lancamento_id_seq increment by 50;
+
+-- O H2 não tem particionamento declarativo: a tabela é a mesma do PostgreSQL com particionarLancamento=false.
+create table if not exists financas.lancamento
+(
+    id            bigint         not null default next value for financas.lancamento_id_seq primary key,
+    descricao     varchar(100)   not null,
+    mes           integer        not null,
+    ano           integer        not null,
+    valor         numeric(16, 2) not null,
+    tipo          varchar(20)    not null check (tipo in ('RECEITA', 'DESPESA')),
+    status        varchar(20)    not null check (status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')),
+    id_usuario    bigint         references financas.usuario (id),
+    data_cadastro date default current_date
+);
+
+-- Sem chave estrangeira: o saldo é derivado dos lançamentos e pode ser recalculado pela reconciliação.
+create table if not exists financas.saldo_usuario
+(
+    id_usuario bigint         not null primary key,
+    valor      numeric(16, 2) not null default 0
+);
+
+-- Bases anteriores às migrações: o saldo de quem ainda não tem linha parte da soma dos lançamentos efetivados, senão a
+-- primeira escrita do usuário gravaria só o delta.
+insert into financas.saldo_usuario (id_usuario, valor)
+select l.id_usuario, sum(case when l.tipo = 'RECEITA' then l.valor else -l.valor end)
+from financas.lancamento l
+where l.status = 'EFETIVADO'
+  and l.id_usuario is not null
+  and not exists(select 1 from financas.saldo_usuario s where s.id_usuario = l.id_usuario)
+group by l.id_usuario;
@@ -0,0 +1,2 @@
+-- O H2 não tem trigramas nem índice por expressão: o filtro lower(descricao) like '%x%' escape '\' da busca de
+-- lançamentos roda aqui sem índice, com a mesma semântica do PostgreSQL (V3 e V10 de lá).
@@ -0,0 +1,18 @@
+-- Totais por usuário, mês, tipo e status, mantidos pelas escritas de LancamentoServiceBean.
+create table if not exists financas.fluxo_mensal
+(
+    id_usuario bigint         not null,
+    ano        integer        not null,
+    mes        integer        not null,
+    tipo       varchar(20)    not null,
+    status     varchar(20)    not null,
+    valor      numeric(18, 2) not null default 0,
+    quantidade bigint         not null default 0,
+    primary key (id_usuario, ano, mes, tipo, status)
+);
+
+insert into financas.fluxo_mensal (id_usuario, ano, mes, tipo, status, valor, quantidade)
+select id_usuario, ano, mes, tipo, status, sum(valor), count(*)
+from financas.lancamento
+where id_usuario is not null
+group by id_usuario, ano, mes, tipo, status;
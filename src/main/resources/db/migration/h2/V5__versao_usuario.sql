@@ -0,0 +1,2 @@
+-- Versão dos dados de cada usuário, incrementada a cada escrita de lançamentos; base das ETags de saldo e busca.
+alter table financas.saldo_usuario add column versao bigint not null default 0;
@@ -0,0 +1,2 @@
+-- Versão de cada lançamento para o controle de concorrência otimista nas edições.
+alter table financas.lancamento add column versao bigint not null default 0;
@@ -0,0 +1,2 @@
+-- Comporta o hash BCrypt (60 caracteres) no lugar da senha em texto puro.
+alter table financas.usuario alter column senha set data type varchar(100);
@@ -0,0 +1,88 @@
+create schema if not exists financas;
+
+create table if not exists financas.usuario
+(
+    id            bigserial    not null primary key,
+    nome          varchar(150),
+    email         varchar(100),
+    senha         varchar(20),
+    data_cadastro date default now()
+);
+
+-- O Hibernate reserva 50 ids por chamada (allocationSize); o incremento da sequence precisa acompanhar.
+create sequence if not exists financas.lancamento_id_seq increment by 50;
+alter sequence financas.lancamento_id_seq increment by 50;
+
+-- Com particionarLancamento=true a tabela nasce particionada por faixa de ano: cada ano fica em uma partição
+-- própria (poda de partição nas consultas por ano, vacuum e descarte de anos antigos de forma independente).
+-- A chave primária passa a ser (id, ano), pois toda restrição única de uma tabela particionada inclui a chave de
+-- partição; a unicidade do id continua garantida pela sequence. Bases em que a tabela já existe não são alteradas.
+do
+$$
+    begin
+        if to_regclass('financas.lancamento') is not null then
+            return;
+        end if;
+        if '${particionarLancamento}' = 'true' then
+            create table financas.lancamento
+            (
+                id            bigint         not null default nextval('financas.lancamento_id_seq'),
+                descricao     varchar(100)   not null,
+                mes           integer        not null,
+                ano           integer        not null,
+                valor         numeric(16, 2) not null,
+                tipo          varchar(20)    not null check (tipo in ('RECEITA', 'DESPESA')),
+                status        varchar(20)    not null check (status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')),
+                id_usuario    bigint         references financas.usuario (id),
+                data_cadastro date                    default now(),
+                primary key (id, ano)
+            ) partition by range (ano);
+            create table financas.lancamento_outros partition of financas.lancamento default;
+        else
+            create table financas.lancamento
+            (
+                id            bigint         not null default nextval('financas.lancamento_id_seq') primary key,
+                descricao     varchar(100)   not null,
+                mes           integer        not null,
+                ano           integer        not null,
+                valor         numeric(16, 2) not null,
+                tipo          varchar(20)    not null check (tipo in ('RECEITA', 'DESPESA')),
+                status        varchar(20)    not null check (status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')),
+                id_usuario    bigint         references financas.usuario (id),
+                data_cadastro date                    default now()
+            );
+        end if;
+    end
+$$;
+
+-- Cria a partição do ano informado quando a tabela é particionada; nas demais não faz nada.
+create or replace function financas.criar_particao_lancamento(p_ano integer) returns void as
+$$
+begin
+    if exists(select 1 from pg_partitioned_table where partrelid = 'financas.lancamento'::regclass) then
+        execute format('create table if not exists financas.lancamento_%s partition of financas.lancamento ' ||
+                       'for values from (%s) to (%s)', p_ano, p_ano, p_ano + 1);
+    end if;
+end
+$$ language plpgsql;
+
+select financas.criar_particao_lancamento(ano)
+from generate_series(extract(year from current_date)::integer - 10,
+                     extract(year from current_date)::integer + 1) as ano;
+
+-- Sem chave estrangeira: o saldo é derivado dos lançamentos e pode ser recalculado pela reconciliação.
+create table if not exists financas.saldo_usuario
+(
+    id_usuario bigint         not null primary key,
+    valor      numeric(16, 2) not null default 0
+);
+
+-- Bases anteriores às migrações: o saldo de quem ainda não tem linha parte da soma dos lançamentos efetivados, senão a
+-- primeira escrita do usuário gravaria só o delta.
+insert into financas.saldo_usuario (id_usuario, valor)
+select l.id_usuario, sum(case when l.tipo = 'RECEITA' then l.valor else -l.valor end)
+from financas.lancamento l
+where l.status = 'EFETIVADO'
+  and l.id_usuario is not null
+  and not exists(select 1 from financas.saldo_usuario s where s.id_usuario = l.id_usuario)
+group by l.id_usuario;
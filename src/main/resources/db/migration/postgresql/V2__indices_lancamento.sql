@@ -0,0 +1,7 @@
+-- Busca paginada por chave e exportação: filtro por usuário (e ano/mês) ordenado por (ano, mes, id).
+create index if not exists idx_lancamento_usuario_ano_mes
+    on financas.lancamento (id_usuario, ano, mes, id);
+
+-- Somatórios de saldo por usuário, tipo e status, respondidos só pelo índice.
+create index if not exists idx_lancamento_usuario_tipo_status
+    on financas.lancamento (id_usuario, tipo, status) include (valor);
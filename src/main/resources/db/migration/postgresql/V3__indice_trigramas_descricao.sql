@@ -0,0 +1,2 @@
+-- Extensão do índice de trigramas da descrição, criado fora de transação por V10__IndiceTrigramasDescricao.
+create extension if not exists pg_trgm;
@@ -0,0 +1,2 @@
+-- O insert passa a ser a fonte da verdade contra e-mails duplicados, inclusive em cadastros concorrentes.
+create unique index if not exists uk_usuario_email on financas.usuario (email);
@@ -0,0 +1,26 @@
+-- Anos sem partição própria caem em lancamento_outros, e o PostgreSQL recusa criar a partição de um ano que já tem
+-- linhas na partição padrão. Nesse caso a padrão é desanexada, a partição do ano é criada, as linhas do ano passam
+-- para ela e a padrão volta a ser anexada, tudo na transação de quem chamou. As partições dos anos seguintes são
+-- criadas pela aplicação (LancamentoService.criarParticoesLancamento).
+create or replace function financas.criar_particao_lancamento(p_ano integer) returns void as
+$$
+begin
+    if not exists(select 1 from pg_partitioned_table where partrelid = 'financas.lancamento'::regclass)
+        or to_regclass(format('financas.lancamento_%s', p_ano)) is not null then
+        return;
+    end if;
+    if to_regclass('financas.lancamento_outros') is not null then
+        if exists(select 1 from financas.lancamento_outros where ano = p_ano) then
+            alter table financas.lancamento detach partition financas.lancamento_outros;
+            execute format('create table financas.lancamento_%s partition of financas.lancamento ' ||
+                           'for values from (%s) to (%s)', p_ano, p_ano, p_ano + 1);
+            insert into financas.lancamento select * from financas.lancamento_outros where ano = p_ano;
+            delete from financas.lancamento_outros where ano = p_ano;
+            alter table financas.lancamento attach partition financas.lancamento_outros default;
+            return;
+        end if;
+    end if;
+    execute format('create table if not exists financas.lancamento_%s partition of financas.lancamento ' ||
+                   'for values from (%s) to (%s)', p_ano, p_ano, p_ano + 1);
+end
+$$ language plpgsql;
@@ -3,7 +3,7 @@ package com.ratacheski.minhasfinancas;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "financas.token.segredo=segredo-dos-testes")
 class MinhasfinancasApplicationTests {
 
     @Test
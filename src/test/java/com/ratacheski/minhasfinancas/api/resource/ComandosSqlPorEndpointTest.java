@@ -0,0 +1,319 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import com.ratacheski.minhasfinancas.config.ContadorComandosSql;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.repository.FluxoMensalRepository;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepository;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import com.ratacheski.minhasfinancas.service.TokenService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fixa o número máximo de comandos SQL de cada endpoint, com o cache de usuários vazio. Um novo campo ou uma
+ * associação carregada sob demanda que volte a emitir um comando por lançamento quebra o build aqui. Nas operações em
+ * lote o limite acompanha os meses distintos afetados, que atualizam o fluxo mensal, e não a quantidade de lançamentos.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ComandosSqlPorEndpointTest {
+
+    static final String LANCAMENTOS = "/api/lancamentos";
+    static final String USUARIOS = "/api/usuarios";
+    static final int QUANTIDADE_LANCAMENTOS = 30;
+    /** Reserva de ids da sequência de lançamentos, que ocorre a cada 50 inserções conforme a ordem dos testes. */
+    static final int ALOCACAO_SEQUENCIA = 1;
+    /** Leitura do estado anterior que o H2 faz antes da alteração parcial; no PostgreSQL ele vem do próprio UPDATE. */
+    static final int ESTADO_ANTERIOR_H2 = 1;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ContadorComandosSql contador;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    FluxoMensalRepository fluxoMensalRepository;
+
+    Usuario usuario;
+    Long idLancamento;
+
+    @BeforeEach
+    void criarDados() {
+        usuario = usuarioRepository.save(Usuario.builder().nome("Usuario").email("usuario@email.com").senha("senha").build());
+        List<Lancamento> lancamentos = new ArrayList<>();
+        for (int i = 0; i < QUANTIDADE_LANCAMENTOS; i++) {
+            Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+            lancamento.setUsuario(usuario);
+            lancamento.setMes(i % 12 + 1);
+            lancamento.setStatusLancamento(i % 2 == 0 ? StatusLancamento.EFETIVADO : StatusLancamento.PENDENTE);
+            lancamentos.add(lancamento);
+        }
+        lancamentoService.importarLancamentos(lancamentos);
+        idLancamento = lancamentoRepository.findAll().get(0).getId();
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+
+    @AfterEach
+    void limpar() {
+        lancamentoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+        saldoUsuarioRepository.deleteAllInBatch();
+        fluxoMensalRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deveSalvarLancamento() throws Exception {
+        assertComandos(MockMvcRequestBuilders.post(LANCAMENTOS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(lancamentoJson(null)), 5 + ALOCACAO_SEQUENCIA);
+    }
+
+    @Test
+    void deveImportarLancamentos() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < QUANTIDADE_LANCAMENTOS; i++) {
+            json.append(i == 0 ? "" : ",").append(lancamentoJson(null));
+        }
+        assertComandos(MockMvcRequestBuilders.post(LANCAMENTOS + "/importar")
+                .param("usuario", usuario.getId().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json.append("]").toString()), 4 + ALOCACAO_SEQUENCIA);
+    }
+
+    @Test
+    void deveImportarLancamentosEmCsv() throws Exception {
+        StringBuilder csv = new StringBuilder("descricao,valor,ano,mes,tipo,status\n");
+        for (int i = 0; i < QUANTIDADE_LANCAMENTOS; i++) {
+            csv.append("Lancamento ").append(i).append(",10.00,2020,").append(i % 12 + 1).append(",DESPESA,EFETIVADO\n");
+        }
+        assertComandos(MockMvcRequestBuilders.post(LANCAMENTOS + "/importar")
+                .param("usuario", usuario.getId().toString())
+                .contentType("text/csv")
+                .content(csv.toString()), 27 + ALOCACAO_SEQUENCIA);
+    }
+
+    @Test
+    void deveSalvarLancamentoParcelado() throws Exception {
+        assertComandos(MockMvcRequestBuilders.post(LANCAMENTOS + "/parcelado")
+                .param("parcelas", "12")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(lancamentoJson(null)), 21 + ALOCACAO_SEQUENCIA);
+    }
+
+    @Test
+    void deveSalvarLancamentoRecorrente() throws Exception {
+        assertComandos(MockMvcRequestBuilders.post(LANCAMENTOS + "/recorrente")
+                .param("meses", "12")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(lancamentoJson(null)), 21 + ALOCACAO_SEQUENCIA);
+    }
+
+    @Test
+    void deveAtualizarLancamento() throws Exception {
+        assertComandos(MockMvcRequestBuilders.put(LANCAMENTOS + "/" + idLancamento)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(lancamentoJson(idLancamento)), 5);
+    }
+
+    @Test
+    void deveAtualizarStatus() throws Exception {
+        assertComandos(MockMvcRequestBuilders.put(LANCAMENTOS + "/" + idLancamento + "/atualiza-status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"CANCELADO\"}"), 5 + ESTADO_ANTERIOR_H2);
+    }
+
+    @Test
+    void deveAtualizarLancamentoParcialmente() throws Exception {
+        assertComandos(MockMvcRequestBuilders.patch(LANCAMENTOS + "/" + idLancamento)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"descricao\":\"Outra descricao\",\"versao\":0}"), 2 + ESTADO_ANTERIOR_H2);
+    }
+
+    @Test
+    void deveAtualizarStatusEmLote() throws Exception {
+        assertComandos(MockMvcRequestBuilders.put(LANCAMENTOS + "/atualiza-status")
+                .param("usuario", usuario.getId().toString())
+                .param("statusAtual", "PENDENTE")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"EFETIVADO\"}"), 21);
+    }
+
+    @Test
+    void deveRemoverEmLote() throws Exception {
+        assertComandos(MockMvcRequestBuilders.delete(LANCAMENTOS)
+                .param("usuario", usuario.getId().toString())
+                .param("status", "EFETIVADO"), 9);
+    }
+
+    @Test
+    void deveRemoverLancamento() throws Exception {
+        assertComandos(MockMvcRequestBuilders.delete(LANCAMENTOS + "/" + idLancamento), 5);
+    }
+
+    @Test
+    void deveObterLancamento() throws Exception {
+        assertComandos(MockMvcRequestBuilders.get(LANCAMENTOS + "/" + idLancamento), 1);
+    }
+
+    @Test
+    void deveBuscarLancamentos() throws Exception {
+        assertComandos(MockMvcRequestBuilders.get(LANCAMENTOS)
+                .param("usuario", usuario.getId().toString()), 3);
+    }
+
+    @Test
+    void deveResponderBuscaNaoModificada() throws Exception {
+        assertComandosNaoModificado(MockMvcRequestBuilders.get(LANCAMENTOS)
+                .param("usuario", usuario.getId().toString()), 2);
+    }
+
+    @Test
+    void deveExportarLancamentos() throws Exception {
+        long inicio = contador.total();
+        MvcResult resultado = mvc.perform(autenticado(MockMvcRequestBuilders.get(LANCAMENTOS + "/exportar"))
+                .param("usuario", usuario.getId().toString())
+                .param("formato", "csv"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().is2xxSuccessful());
+        assertMaximo(contador.total() - inicio, 2);
+    }
+
+    @Test
+    void deveAutenticarUsuario() throws Exception {
+        // A primeira autenticação troca a senha em texto puro dos dados de teste pelo hash; mede-se a seguinte.
+        autenticar();
+        long inicio = contador.total();
+        autenticar();
+        assertMaximo(contador.total() - inicio, 1);
+    }
+
+    @Test
+    void deveSalvarUsuario() throws Exception {
+        assertComandos(MockMvcRequestBuilders.post(USUARIOS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Novo\",\"email\":\"novo@email.com\",\"senha\":\"senha\"}"), 1);
+    }
+
+    @Test
+    void deveObterSaldo() throws Exception {
+        assertComandos(MockMvcRequestBuilders.get(USUARIOS + "/" + usuario.getId() + "/saldo"), 3);
+    }
+
+    @Test
+    void deveResponderSaldoNaoModificado() throws Exception {
+        assertComandosNaoModificado(MockMvcRequestBuilders.get(USUARIOS + "/" + usuario.getId() + "/saldo"), 2);
+    }
+
+    @Test
+    void deveObterFluxo() throws Exception {
+        assertComandos(MockMvcRequestBuilders.get(USUARIOS + "/" + usuario.getId() + "/fluxo")
+                .param("de", "2020-01")
+                .param("ate", "2020-12"), 2);
+    }
+
+    @Test
+    void deveRegistrarComandosPorRequisicao() throws Exception {
+        mvc.perform(autenticado(MockMvcRequestBuilders.get(LANCAMENTOS + "/" + idLancamento)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        DistributionSummary resumo = meterRegistry.find("financas.sql.comandos.requisicao")
+                .tags("method", "GET", "uri", LANCAMENTOS + "/{id}")
+                .summary();
+        assertNotNull(resumo);
+        assertTrue(resumo.count() >= 1);
+        assertTrue(resumo.max() >= 1);
+    }
+
+    private void assertComandos(MockHttpServletRequestBuilder requisicao, int maximo) throws Exception {
+        long inicio = contador.total();
+        mvc.perform(autenticado(requisicao)).andExpect(MockMvcResultMatchers.status().is2xxSuccessful());
+        assertMaximo(contador.total() - inicio, maximo);
+    }
+
+    private void assertComandosNaoModificado(MockHttpServletRequestBuilder requisicao, int maximo) throws Exception {
+        String etag = "\"" + lancamentoService.obterVersaoPorUsuario(usuario.getId()) + "\"";
+        long inicio = contador.total();
+        mvc.perform(autenticado(requisicao).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+        assertMaximo(contador.total() - inicio, maximo);
+    }
+
+    private MockHttpServletRequestBuilder autenticado(MockHttpServletRequestBuilder requisicao) {
+        return requisicao.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerarToken(usuario.getId()));
+    }
+
+    private void assertMaximo(long comandos, int maximo) {
+        assertTrue(comandos <= maximo, "Esperado no máximo " + maximo + " comandos SQL, executados " + comandos);
+    }
+
+    private void autenticar() throws Exception {
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.post(USUARIOS + "/autenticar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"usuario@email.com\",\"senha\":\"senha\"}"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private String lancamentoJson(Long id) {
+        return "{" + (id == null ? "" : "\"id\":" + id + ",")
+                + "\"descricao\":\"Lancamento\",\"valor\":10,\"ano\":2020,\"mes\":1,"
+                + "\"tipo\":\"RECEITA\",\"status\":\"EFETIVADO\",\"usuario\":" + usuario.getId() + "}";
+    }
+}
@@ -0,0 +1,183 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import com.jayway.jsonpath.JsonPath;
+import com.ratacheski.minhasfinancas.config.ServidorReativo;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepository;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
+import com.ratacheski.minhasfinancas.service.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"financas.reativo.r2dbc.url=r2dbc:h2:mem:///db", "financas.reativo.porta=0"})
+class LancamentoReativoHandlerTest {
+
+    static final String API = "/api/lancamentos";
+
+    @Autowired
+    ServidorReativo servidorReativo;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    TokenService tokenService;
+
+    WebTestClient client;
+
+    @BeforeEach
+    void conectar() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + servidorReativo.getPorta()).build();
+    }
+
+    @AfterEach
+    void limpar() {
+        lancamentoRepository.deleteAllInBatch();
+        saldoUsuarioRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deveBuscarLancamentosPaginadosPeloCursor() {
+        Usuario usuario = criarUsuarioComLancamentos(3);
+
+        byte[] primeiraPagina = get(usuario.getId(), API + "?usuario=" + usuario.getId() + "&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.conteudo.length()").isEqualTo(2)
+                .jsonPath("$.conteudo[0].mes").isEqualTo(1)
+                .jsonPath("$.conteudo[1].mes").isEqualTo(2)
+                .returnResult().getResponseBody();
+        String cursor = JsonPath.read(new String(primeiraPagina, StandardCharsets.UTF_8), "$.proximo");
+
+        get(usuario.getId(), API + "?limit=2&next=" + cursor).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.conteudo.length()").isEqualTo(1)
+                .jsonPath("$.conteudo[0].mes").isEqualTo(3)
+                .jsonPath("$.proximo").doesNotExist();
+    }
+
+    @Test
+    void deveFiltrarPelaDescricaoSemInterpretarCuringas() {
+        Usuario usuario = criarUsuarioComLancamentos(2);
+        Lancamento comCuringa = LancamentoRepositoryTest.criarLancamento();
+        comCuringa.setDescricao("Desconto 100%");
+        comCuringa.setUsuario(usuario);
+        lancamentoRepository.save(comCuringa);
+
+        get(usuario.getId(), API + "?descricao={descricao}", "0%").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.conteudo.length()").isEqualTo(1)
+                .jsonPath("$.conteudo[0].descricao").isEqualTo("Desconto 100%");
+    }
+
+    @Test
+    void deveResponderNaoModificadoQuandoAVersaoNaoMudou() {
+        Usuario usuario = criarUsuarioComLancamentos(1);
+
+        get(usuario.getId(), API).header(HttpHeaders.IF_NONE_MATCH, "\"0\"").exchange()
+                .expectStatus().isNotModified();
+        get(usuario.getId(), "/api/usuarios/" + usuario.getId() + "/saldo").header(HttpHeaders.IF_NONE_MATCH, "\"0\"").exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void naoDeveBuscarLancamentosDeUsuarioInexistente() {
+        get(999999L, API).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("Não foi possível realizar a consulta. Usuário não encontrado para o id informado.");
+    }
+
+    @Test
+    void deveObterOSaldoDoUsuario() {
+        Usuario usuario = criarUsuarioComLancamentos(1);
+        Usuario semLancamentos = usuarioRepository.save(Usuario.builder().nome("Usuario").email("vazio@teste.com").senha("123").build());
+
+        get(usuario.getId(), "/api/usuarios/" + usuario.getId() + "/saldo").exchange()
+                .expectStatus().isOk()
+                .expectBody(BigDecimal.class).isEqualTo(new BigDecimal("10.00"));
+        get(semLancamentos.getId(), "/api/usuarios/" + semLancamentos.getId() + "/saldo").exchange()
+                .expectStatus().isOk()
+                .expectBody(BigDecimal.class).isEqualTo(BigDecimal.ZERO);
+        get(999999L, "/api/usuarios/999999/saldo").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void deveExportarOsLancamentosEmNdjsonECsv() {
+        Usuario usuario = criarUsuarioComLancamentos(3);
+
+        String ndjson = get(usuario.getId(), API + "/exportar?usuario=" + usuario.getId()).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/x-ndjson")
+                .expectBody(String.class).returnResult().getResponseBody();
+        String[] linhas = ndjson.split("\n");
+        assertEquals(linhas.length, 3);
+        assertTrue(linhas[2].contains("\"mes\":3"));
+
+        String csv = get(usuario.getId(), API + "/exportar?formato=csv").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertTrue(csv.startsWith(LancamentoCsv.CABECALHO));
+        assertEquals(csv.split("\n").length, 4);
+
+        get(usuario.getId(), API + "/exportar?formato=xml").exchange()
+                .expectStatus().isBadRequest();
+        get(usuario.getId(), API + "/exportar?usuario=999999").exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void deveRecusarRequisicoesSemTokenOuDeOutroUsuario() {
+        Usuario usuario = criarUsuarioComLancamentos(1);
+
+        client.get().uri(API).exchange()
+                .expectStatus().isUnauthorized();
+        get(999999L, API + "?usuario=" + usuario.getId()).exchange()
+                .expectStatus().isForbidden();
+        get(999999L, "/api/usuarios/" + usuario.getId() + "/saldo").exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private WebTestClient.RequestHeadersSpec<?> get(Long idUsuario, String uri, Object... variaveis) {
+        return client.get().uri(uri, variaveis)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerarToken(idUsuario));
+    }
+
+    private Usuario criarUsuarioComLancamentos(int quantidade) {
+        Usuario usuario = LancamentoRepositoryTest.criarUsuarioComLancamentos(usuarioRepository, lancamentoRepository,
+                "usuario@teste.com", quantidade);
+        saldoUsuarioRepository.save(new SaldoUsuario(usuario.getId(), new BigDecimal("10.00")));
+        return usuario;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepository;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
+import com.ratacheski.minhasfinancas.service.TokenService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class LancamentoResourceConsultasTest {
+
+    static final String API = "/api/lancamentos";
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TokenService tokenService;
+
+    @AfterEach
+    void limpar() {
+        lancamentoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deveExecutarAMesmaQuantidadeDeConsultasNaBuscaIndependenteDoVolume() throws Exception {
+        Usuario poucosLancamentos = LancamentoRepositoryTest.criarUsuarioComLancamentos(
+                usuarioRepository, lancamentoRepository, "poucos@teste.com", 1);
+        Usuario muitosLancamentos = LancamentoRepositoryTest.criarUsuarioComLancamentos(
+                usuarioRepository, lancamentoRepository, "muitos@teste.com", 30);
+
+        long consultasComPoucos = contarConsultas(API, poucosLancamentos);
+        long consultasComMuitos = contarConsultas(API, muitosLancamentos);
+
+        assertEquals(consultasComPoucos, consultasComMuitos);
+        assertEquals(consultasComMuitos, 2);
+    }
+
+    @Test
+    void deveObterLancamentoPorIdComUmaConsulta() throws Exception {
+        Usuario usuario = LancamentoRepositoryTest.criarUsuarioComLancamentos(
+                usuarioRepository, lancamentoRepository, "usuario@teste.com", 1);
+        Long idLancamento = lancamentoRepository.findAll().get(0).getId();
+
+        long consultas = contarConsultas(API + "/" + idLancamento, usuario);
+
+        assertEquals(consultas, 1);
+    }
+
+    private long contarConsultas(String url, Usuario usuario) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(MockMvcRequestBuilders.get(url)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerarToken(usuario.getId())))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,288 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import com.jayway.jsonpath.JsonPath;
+import com.ratacheski.minhasfinancas.exception.ConflitoVersaoException;
+import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import com.ratacheski.minhasfinancas.model.repository.ChaveLancamento;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import com.ratacheski.minhasfinancas.service.TokenService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoResource.class)
+@AutoConfigureMockMvc
+class LancamentoResourceTest {
+
+    static final String API = "/api/lancamentos";
+    static final MediaType JSON = APPLICATION_JSON;
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    LancamentoService lancamentoService;
+
+    /**
+     * Faz o papel do {@code AutenticacaoTokenInterceptor}, que não sobe neste teste.
+     */
+    static RequestPostProcessor autenticado(Long idUsuario) {
+        return request -> {
+            request.setAttribute(TokenService.ATRIBUTO_ID_USUARIO, idUsuario);
+            return request;
+        };
+    }
+
+    @Test
+    void deveRetornarCursorDaProximaPaginaNaBusca() throws Exception {
+        Usuario usuario = Usuario.builder().id(1L).build();
+        LancamentoProjecao lancamento = new LancamentoProjecao(7L, "Lancamento Qualquer", 1, 2020, BigDecimal.TEN, 1L,
+                TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 0L);
+        Mockito.when(lancamentoService.buscarLancamentos(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.eq(1)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(lancamento), PageRequest.of(0, 1), true));
+
+        MvcResult resultado = mvc
+                .perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("limit", "1").with(autenticado(1L)).accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].id").value(7))
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo[0].usuario").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("proximo").isNotEmpty())
+                .andReturn();
+        String proximo = JsonPath.read(resultado.getResponse().getContentAsString(), "$.proximo");
+
+        Mockito.when(lancamentoService.buscarLancamentos(Mockito.any(Lancamento.class),
+                Mockito.eq(new ChaveLancamento(2020, 1, 7L)), Mockito.eq(1)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 1), false));
+
+        mvc
+                .perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("limit", "1").param("next", proximo).with(autenticado(1L)).accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo").isEmpty())
+                .andExpect(MockMvcResultMatchers.jsonPath("proximo").doesNotExist());
+    }
+
+    @Test
+    void deveResponderNaoModificadoSemBuscarQuandoAVersaoDoUsuarioNaoMudou() throws Exception {
+        Mockito.when(lancamentoService.obterVersaoPorUsuario(1L)).thenReturn(3L);
+
+        mvc
+                .perform(MockMvcRequestBuilders.get(API).param("usuario", "1").with(autenticado(1L)).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3\""));
+
+        Mockito.verify(lancamentoService, Mockito.never())
+                .buscarLancamentos(Mockito.any(Lancamento.class), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    void deveBuscarEEmitirNovaETagQuandoAVersaoDoUsuarioMudou() throws Exception {
+        Mockito.when(lancamentoService.obterVersaoPorUsuario(1L)).thenReturn(4L);
+        Mockito.when(lancamentoService.buscarLancamentos(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.anyInt()))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 1), false));
+
+        mvc
+                .perform(MockMvcRequestBuilders.get(API).param("usuario", "1").with(autenticado(1L)).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("conteudo").isEmpty());
+    }
+
+    @Test
+    void naoDeveBuscarLancamentosDeOutroUsuario() throws Exception {
+        mvc
+                .perform(MockMvcRequestBuilders.get(API).param("usuario", "2").with(autenticado(1L)).accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        Mockito.verifyNoInteractions(lancamentoService);
+    }
+
+    @Test
+    void deveRetornarBadRequestParaCursorInvalido() throws Exception {
+        mvc
+                .perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("next", "invalido").with(autenticado(1L)).accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void deveExportarLancamentosEmCsv() throws Exception {
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(7L);
+        lancamento.setDescricao("Aluguel, março");
+        lancamento.setUsuario(usuario);
+        Mockito.when(lancamentoService.exportarLancamentos(Mockito.eq(1L), Mockito.any())).thenAnswer(invocation -> {
+            Consumer<Lancamento> consumidor = invocation.getArgument(1);
+            consumidor.accept(lancamento);
+            return 1L;
+        });
+
+        MvcResult resultado = mvc
+                .perform(MockMvcRequestBuilders.get(API.concat("/exportar")).param("usuario", "1").param("formato", "csv")
+                        .with(autenticado(1L)))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(
+                        "id,descricao,mes,ano,valor,usuario,tipo,status,data_cadastro\n" +
+                        "7,\"Aluguel, março\",1,2020,10,1,RECEITA,PENDENTE," + lancamento.getDataCadastro() + "\n"));
+    }
+
+    @Test
+    void deveImportarLancamentosEmCsvParaOUsuarioDoToken() throws Exception {
+        Mockito.when(lancamentoService.importarLancamentos(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Lancamento> lancamentos = invocation.getArgument(0);
+            return lancamentos.size();
+        });
+        String csv = "descricao,mes,ano,valor,tipo,status\n" +
+                "\"Salário, empresa\",1,2020,1000.00,RECEITA,EFETIVADO\n" +
+                "Mercado,1,2020,250.10,DESPESA,\n";
+
+        mvc
+                .perform(MockMvcRequestBuilders.post(API.concat("/importar")).param("usuario", "1")
+                        .with(autenticado(1L)).contentType("text/csv;charset=UTF-8").content(csv))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("quantidade").value(2));
+
+        Mockito.verify(lancamentoService).importarLancamentos(Mockito.argThat(lancamentos ->
+                lancamentos.get(0).getDescricao().equals("Salário, empresa")
+                        && lancamentos.get(0).getStatusLancamento() == StatusLancamento.EFETIVADO
+                        && lancamentos.get(1).getStatusLancamento() == null
+                        && lancamentos.get(1).getUsuario().getId().equals(1L)));
+    }
+
+    @Test
+    void deveSalvarParceladoRetornandoOsLancamentosGerados() throws Exception {
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Mockito.when(lancamentoService.salvarParcelado(Mockito.any(Lancamento.class), Mockito.eq(2))).thenAnswer(invocation -> {
+            Lancamento modelo = invocation.getArgument(0);
+            Lancamento primeira = LancamentoRepositoryTest.criarLancamento();
+            primeira.setId(1L);
+            primeira.setUsuario(modelo.getUsuario());
+            Lancamento segunda = LancamentoRepositoryTest.criarLancamento();
+            segunda.setId(2L);
+            segunda.setMes(2);
+            segunda.setUsuario(modelo.getUsuario());
+            return Arrays.asList(primeira, segunda);
+        });
+        String json = "{\"descricao\":\"Compra\",\"mes\":1,\"ano\":2020,\"valor\":20,\"usuario\":1,\"tipo\":\"DESPESA\"}";
+
+        mvc
+                .perform(MockMvcRequestBuilders.post(API.concat("/parcelado")).param("parcelas", "2")
+                        .with(autenticado(1L)).contentType(JSON).content(json))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].id").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].mes").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].usuario").value(1));
+
+    }
+
+    @Test
+    void deveRetornarBadRequestAoSalvarRecorrenteInvalido() throws Exception {
+        Mockito.when(lancamentoService.salvarRecorrente(Mockito.any(Lancamento.class), Mockito.eq(200)))
+                .thenThrow(new RegraNegocioException("Informe entre 2 e 120 meses."));
+        String json = "{\"descricao\":\"Salário\",\"mes\":1,\"ano\":2020,\"valor\":20,\"usuario\":1,\"tipo\":\"RECEITA\"}";
+
+        mvc
+                .perform(MockMvcRequestBuilders.post(API.concat("/recorrente")).param("meses", "200")
+                        .with(autenticado(1L)).contentType(JSON).content(json))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().string("Informe entre 2 e 120 meses."));
+    }
+
+    @Test
+    void deveAtualizarParcialmenteConferindoODonoDoLancamento() throws Exception {
+        Lancamento atualizado = LancamentoRepositoryTest.criarLancamento();
+        atualizado.setId(7L);
+        atualizado.setUsuario(Usuario.builder().id(1L).build());
+        atualizado.setVersao(4L);
+        Mockito.when(lancamentoService.atualizarParcialmente(Mockito.eq(7L), Mockito.eq(1L), Mockito.eq(3L),
+                Mockito.any(Lancamento.class))).thenReturn(Optional.of(atualizado));
+
+        mvc
+                .perform(MockMvcRequestBuilders.patch(API.concat("/7"))
+                        .with(autenticado(1L)).contentType(JSON).content("{\"status\":\"EFETIVADO\",\"versao\":3}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("versao").value(4));
+
+        Mockito.verify(lancamentoService, Mockito.never()).obterPorId(Mockito.any());
+    }
+
+    @Test
+    void naoDeveAtualizarParcialmenteLancamentoDeOutroUsuario() throws Exception {
+        Mockito.when(lancamentoService.atualizarParcialmente(Mockito.eq(7L), Mockito.eq(1L), Mockito.eq(3L),
+                Mockito.any(Lancamento.class))).thenReturn(Optional.empty());
+
+        mvc
+                .perform(MockMvcRequestBuilders.patch(API.concat("/7"))
+                        .with(autenticado(1L)).contentType(JSON).content("{\"status\":\"EFETIVADO\",\"versao\":3}"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    void deveRetornarConflitoAoAtualizarParcialmenteComVersaoDesatualizada() throws Exception {
+        Mockito.when(lancamentoService.atualizarParcialmente(Mockito.eq(7L), Mockito.eq(1L), Mockito.eq(3L),
+                Mockito.any(Lancamento.class))).thenThrow(new ConflitoVersaoException("Conflito"));
+
+        mvc
+                .perform(MockMvcRequestBuilders.patch(API.concat("/7"))
+                        .with(autenticado(1L)).contentType(JSON).content("{\"descricao\":\"Outra\",\"versao\":3}"))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    void devePermitirPatchNaRequisicaoDePreflight() throws Exception {
+        mvc
+                .perform(MockMvcRequestBuilders.options(API.concat("/7"))
+                        .header(HttpHeaders.ORIGIN, "http://localhost:3000")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS,
+                        Matchers.containsString("PATCH")));
+    }
+
+    @Test
+    void naoDeveAtualizarParcialmenteSemVersao() throws Exception {
+        mvc
+                .perform(MockMvcRequestBuilders.patch(API.concat("/7"))
+                        .with(autenticado(1L)).contentType(JSON).content("{\"descricao\":\"Outra\"}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(lancamentoService);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ratacheski.minhasfinancas.api.resource;
+
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReconciliacaoSaldosEndpointTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ReconciliacaoSaldosEndpoint endpoint;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @AfterEach
+    void limpar() {
+        usuarioRepository.deleteAllInBatch();
+        saldoUsuarioRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deveReconciliarOSaldoDoUsuario() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder().nome("Usuario").email("usuario@email.com").senha("senha").build());
+        saldoUsuarioRepository.save(SaldoUsuario.builder().idUsuario(usuario.getId()).valor(BigDecimal.TEN).build());
+
+        BigDecimal saldo = endpoint.reconciliarSaldo(usuario.getId());
+
+        assertEquals(0, saldo.compareTo(BigDecimal.ZERO));
+        assertEquals(0, saldoUsuarioRepository.findById(usuario.getId()).get().getValor().compareTo(BigDecimal.ZERO));
+    }
+
+    @Test
+    void naoDeveReconciliarSaldoDeUsuarioInexistente() {
+        assertNull(endpoint.reconciliarSaldo(1L));
+    }
+
+    @Test
+    void naoDeveExporAReconciliacaoNaApiNemNoActuatorPorPadrao() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/api/usuarios/saldos/reconciliar"))
+                .andExpect(MockMvcResultMatchers.status().is4xxClientError());
+        mvc.perform(MockMvcRequestBuilders.post("/actuator/saldos"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
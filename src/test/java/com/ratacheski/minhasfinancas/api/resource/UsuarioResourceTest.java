@@ -4,9 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ratacheski.minhasfinancas.api.dto.UsuarioDTO;
 import com.ratacheski.minhasfinancas.exception.ErroAutenticacaoException;
 import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensal;
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
 import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
 import com.ratacheski.minhasfinancas.service.LancamentoService;
+import com.ratacheski.minhasfinancas.service.NotificacaoService;
+import com.ratacheski.minhasfinancas.service.TokenService;
 import com.ratacheski.minhasfinancas.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -14,6 +21,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -21,6 +29,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 
@@ -42,13 +58,29 @@ class UsuarioResourceTest {
     @MockBean
     LancamentoService lancamentoService;
 
+    @MockBean
+    NotificacaoService notificacaoService;
+
+    @MockBean
+    TokenService tokenService;
+
+    @BeforeEach
+    void validarTokenDoUsuario() {
+        Mockito.when(tokenService.validarToken("token")).thenReturn(Optional.of(1L));
+    }
+
+    static MockHttpServletRequestBuilder autenticado(MockHttpServletRequestBuilder requisicao) {
+        return requisicao.header(HttpHeaders.AUTHORIZATION, "Bearer token");
+    }
+
     @Test
     void deveAutenticarUmUsuario() throws Exception {
         String email = "usuario@email.com";
         String senha = "123";
         UsuarioDTO dto = UsuarioDTO.builder().email(email).senha(senha).build();
         Usuario usuario = Usuario.builder().email(email).id(1L).senha(senha).build();
-        Mockito.when(usuarioService.autenticarUsuario(email, senha)).thenReturn(usuario);
+        Mockito.when(usuarioService.autenticarUsuario(email, senha)).thenReturn(CompletableFuture.completedFuture(usuario));
+        Mockito.when(tokenService.gerarToken(1L)).thenReturn("token");
         String json = new ObjectMapper().writeValueAsString(dto);
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
@@ -58,11 +90,13 @@ class UsuarioResourceTest {
                 .content(json);
 
         mvc
-                .perform(requestBuilder)
+                .perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(requestBuilder).andReturn()))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
                 .andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-                .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+                .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+                .andExpect(MockMvcResultMatchers.jsonPath("token").value("token"))
+                .andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist());
     }
 
     @Test
@@ -70,7 +104,8 @@ class UsuarioResourceTest {
         String email = "usuario@email.com";
         String senha = "123";
         UsuarioDTO dto = UsuarioDTO.builder().email(email).senha(senha).build();
-        Mockito.when(usuarioService.autenticarUsuario(email, senha)).thenThrow(ErroAutenticacaoException.class);
+        Mockito.when(usuarioService.autenticarUsuario(email, senha))
+                .thenReturn(CompletableFuture.failedFuture(new ErroAutenticacaoException("Senha Inválida.")));
         String json = new ObjectMapper().writeValueAsString(dto);
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
@@ -80,8 +115,62 @@ class UsuarioResourceTest {
                 .content(json);
 
         mvc
-                .perform(requestBuilder)
+                .perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(requestBuilder).andReturn()))
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verify(tokenService, Mockito.never()).gerarToken(Mockito.anyLong());
+    }
+
+    @Test
+    void deveRetornarServicoIndisponivelComOExecutorDeHashCheio() throws Exception {
+        Mockito.when(usuarioService.autenticarUsuario("usuario@email.com", "123"))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException()));
+
+        mvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(MockMvcRequestBuilders
+                        .post(API.concat("/autenticar")).contentType(JSON)
+                        .content("{\"email\":\"usuario@email.com\",\"senha\":\"123\"}")).andReturn()))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void deveGuardarOUsuarioDoTokenNaRequisicao() throws Exception {
+        Mockito.when(tokenService.validarToken("valido")).thenReturn(Optional.of(1L));
+        Mockito.when(lancamentoService.obterSaldoEVersaoPorUsuario(1L)).thenReturn(new SaldoUsuario(1L, BigDecimal.TEN, 0L));
+
+        mvc
+                .perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")).header(HttpHeaders.AUTHORIZATION, "Bearer valido"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.request().attribute(TokenService.ATRIBUTO_ID_USUARIO, 1L));
+    }
+
+    @Test
+    void deveRetornarNaoAutorizadoComTokenInvalido() throws Exception {
+        Mockito.when(tokenService.validarToken("invalido")).thenReturn(Optional.empty());
+
+        mvc
+                .perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")).header(HttpHeaders.AUTHORIZATION, "Bearer invalido"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+
+        Mockito.verifyNoInteractions(usuarioService, lancamentoService);
+    }
+
+    @Test
+    void deveRetornarNaoAutorizadoSemToken() throws Exception {
+        mvc
+                .perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+
+        Mockito.verifyNoInteractions(lancamentoService);
+    }
+
+    @Test
+    void naoDeveRetornarOSaldoDeOutroUsuario() throws Exception {
+        mvc
+                .perform(autenticado(MockMvcRequestBuilders.get(API.concat("/2/saldo"))))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        Mockito.verifyNoInteractions(lancamentoService);
     }
 
     @Test
@@ -126,4 +215,87 @@ class UsuarioResourceTest {
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
 
-}
\ No newline at end of file
+    @Test
+    void deveRetornarServicoIndisponivelAoSalvarComOExecutorDeHashCheio() throws Exception {
+        Mockito.when(usuarioService.salvarUsuario(Mockito.any(Usuario.class))).thenThrow(new RejectedExecutionException());
+
+        mvc
+                .perform(MockMvcRequestBuilders.post(API).contentType(JSON)
+                        .content("{\"email\":\"usuario@email.com\",\"senha\":\"123\"}"))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void deveAgruparOFluxoPorMes() throws Exception {
+        Mockito.when(lancamentoService.obterFluxoMensal(1L, YearMonth.of(2020, 1), YearMonth.of(2020, 12),
+                StatusLancamento.EFETIVADO)).thenReturn(Arrays.asList(
+                FluxoMensal.builder().ano(2020).mes(1).tipoLancamento(TipoLancamento.RECEITA).valor(new BigDecimal("100")).build(),
+                FluxoMensal.builder().ano(2020).mes(1).tipoLancamento(TipoLancamento.DESPESA).valor(new BigDecimal("30")).build(),
+                FluxoMensal.builder().ano(2020).mes(3).tipoLancamento(TipoLancamento.DESPESA).valor(new BigDecimal("5")).build()));
+
+        mvc
+                .perform(autenticado(MockMvcRequestBuilders.get(API.concat("/1/fluxo?de=2020-01&ate=2020-12"))).accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].mes").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].receitas").value(100))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].despesas").value(30))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].saldo").value(70))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].mes").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].saldo").value(-5));
+    }
+
+    @Test
+    void deveRetornarBadRequestAoObterFluxoComPeriodoInvalido() throws Exception {
+
+        mvc
+                .perform(autenticado(MockMvcRequestBuilders.get(API.concat("/1/fluxo?de=2020-13&ate=2020-12"))).accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+
+    @Test
+    void deveResponderNaoModificadoAoSaldoDaMesmaVersao() throws Exception {
+        Mockito.when(lancamentoService.obterSaldoEVersaoPorUsuario(1L)).thenReturn(new SaldoUsuario(1L, BigDecimal.TEN, 7L));
+
+        mvc
+                .perform(autenticado(MockMvcRequestBuilders.get(API.concat("/1/saldo"))).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"7\""));
+    }
+
+    @Test
+    void deveRetornarSaldoComETagDaVersaoDoUsuario() throws Exception {
+        Mockito.when(lancamentoService.obterSaldoEVersaoPorUsuario(1L)).thenReturn(new SaldoUsuario(1L, BigDecimal.TEN, 8L));
+
+        mvc
+                .perform(autenticado(MockMvcRequestBuilders.get(API.concat("/1/saldo"))).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"8\""))
+                .andExpect(MockMvcResultMatchers.content().string("10"));
+
+        Mockito.verify(lancamentoService, Mockito.never()).obterVersaoPorUsuario(Mockito.anyLong());
+        Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(Mockito.anyLong());
+    }
+
+    @Test
+    void deveAssinarEventosDoUsuario() throws Exception {
+        Mockito.when(notificacaoService.assinar(1L)).thenReturn(new SseEmitter());
+
+        mvc
+                .perform(autenticado(MockMvcRequestBuilders.get(API.concat("/1/eventos"))).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+        Mockito.verify(notificacaoService).assinar(1L);
+    }
+
+    @Test
+    void naoDeveAssinarEventosDeOutroUsuario() throws Exception {
+        mvc
+                .perform(autenticado(MockMvcRequestBuilders.get(API.concat("/2/eventos"))).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        Mockito.verify(notificacaoService, Mockito.never()).assinar(Mockito.anyLong());
+    }
+}
@@ -0,0 +1,46 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.ratacheski.minhasfinancas.service.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AfinidadePrimarioInterceptorTest {
+
+    AfinidadePrimario afinidadePrimario = new AfinidadePrimario(Duration.ofMinutes(1));
+    AfinidadePrimarioInterceptor interceptor = new AfinidadePrimarioInterceptor(afinidadePrimario);
+
+    @AfterEach
+    void limpar() {
+        afinidadePrimario.limparUsuario();
+    }
+
+    @Test
+    void deveUsarOUsuarioDoTokenMesmoSemParametroNaRota() {
+        afinidadePrimario.registrarEscrita(5L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos/7");
+        request.setAttribute(TokenService.ATRIBUTO_ID_USUARIO, 5L);
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertTrue(afinidadePrimario.deveLerDoPrimario());
+    }
+
+    @Test
+    void devePreferirOUsuarioDoTokenAoParametro() {
+        afinidadePrimario.registrarEscrita(9L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+        request.setAttribute(TokenService.ATRIBUTO_ID_USUARIO, 5L);
+        request.setParameter("usuario", "9");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertFalse(afinidadePrimario.deveLerDoPrimario());
+    }
+}
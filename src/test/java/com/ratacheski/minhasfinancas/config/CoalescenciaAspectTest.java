@@ -0,0 +1,164 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+class CoalescenciaAspectTest {
+
+    static final int CHAMADAS = 8;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @MockBean
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Test
+    void deveCompartilharUmaConsultaEntreChamadasSimultaneasDoMesmoSaldo() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(saldoUsuarioRepository.findById(1L)).thenAnswer(invocacao -> {
+            liberar.await(10, TimeUnit.SECONDS);
+            return Optional.of(new SaldoUsuario(1L, BigDecimal.TEN));
+        });
+        double compartilhadasAntes = compartilhadas("obterSaldoEVersaoPorUsuario");
+
+        ExecutorService executor = Executors.newFixedThreadPool(CHAMADAS);
+        List<Future<SaldoUsuario>> saldos = new ArrayList<>();
+        for (int i = 0; i < CHAMADAS; i++) {
+            saldos.add(executor.submit(() -> lancamentoService.obterSaldoEVersaoPorUsuario(1L)));
+        }
+        aguardar(() -> compartilhadas("obterSaldoEVersaoPorUsuario") - compartilhadasAntes >= CHAMADAS - 1);
+        liberar.countDown();
+
+        for (Future<SaldoUsuario> saldo : saldos) {
+            assertEquals(saldo.get(10, TimeUnit.SECONDS).getValor(), BigDecimal.TEN);
+        }
+        executor.shutdown();
+        Mockito.verify(saldoUsuarioRepository, Mockito.times(1)).findById(1L);
+        assertEquals(compartilhadas("obterSaldoEVersaoPorUsuario") - compartilhadasAntes, CHAMADAS - 1);
+    }
+
+    @Test
+    void deveRepassarAExcecaoDaConsultaATodasAsChamadas() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(saldoUsuarioRepository.findById(2L)).thenAnswer(invocacao -> {
+            liberar.await(10, TimeUnit.SECONDS);
+            throw new QueryTimeoutException("tempo esgotado");
+        });
+        double compartilhadasAntes = compartilhadas("obterSaldoEVersaoPorUsuario");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<SaldoUsuario> primeira = executor.submit(() -> lancamentoService.obterSaldoEVersaoPorUsuario(2L));
+        Future<SaldoUsuario> segunda = executor.submit(() -> lancamentoService.obterSaldoEVersaoPorUsuario(2L));
+        aguardar(() -> compartilhadas("obterSaldoEVersaoPorUsuario") - compartilhadasAntes >= 1);
+        liberar.countDown();
+
+        for (Future<SaldoUsuario> saldo : List.of(primeira, segunda)) {
+            Exception exception = assertThrows(Exception.class, () -> saldo.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof QueryTimeoutException);
+        }
+        executor.shutdown();
+        Mockito.verify(saldoUsuarioRepository, Mockito.times(1)).findById(2L);
+    }
+
+    @Test
+    void naoDeveCoalescerAsLeiturasAvulsasDeSaldoEVersao() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(saldoUsuarioRepository.obterVersao(4L)).thenAnswer(invocacao -> {
+            liberar.await(10, TimeUnit.SECONDS);
+            return Optional.of(1L);
+        });
+        Mockito.when(saldoUsuarioRepository.findById(4L)).thenAnswer(invocacao -> {
+            liberar.await(10, TimeUnit.SECONDS);
+            return Optional.of(new SaldoUsuario(4L, BigDecimal.TEN, 1L));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> leituras = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            leituras.add(executor.submit(() -> lancamentoService.obterVersaoPorUsuario(4L)));
+            leituras.add(executor.submit(() -> lancamentoService.obterSaldoPorUsuario(4L)));
+        }
+        aguardar(() -> Mockito.mockingDetails(saldoUsuarioRepository).getInvocations().size() >= 4);
+        liberar.countDown();
+
+        for (Future<?> leitura : leituras) {
+            leitura.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        Mockito.verify(saldoUsuarioRepository, Mockito.times(2)).obterVersao(4L);
+        Mockito.verify(saldoUsuarioRepository, Mockito.times(2)).findById(4L);
+    }
+
+    @Test
+    void naoDeveCoalescerChamadasDentroDeUmaTransacao() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(saldoUsuarioRepository.findById(3L))
+                .thenAnswer(invocacao -> {
+                    liberar.await(10, TimeUnit.SECONDS);
+                    return Optional.empty();
+                })
+                .thenReturn(Optional.of(new SaldoUsuario(3L, BigDecimal.ONE)));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<SaldoUsuario> foraDaTransacao = executor.submit(() -> lancamentoService.obterSaldoEVersaoPorUsuario(3L));
+        aguardar(() -> Mockito.mockingDetails(saldoUsuarioRepository).getInvocations().stream()
+                .anyMatch(invocacao -> invocacao.getMethod().getName().equals("findById")));
+
+        SaldoUsuario naTransacao = transactionTemplate.execute(status -> lancamentoService.obterSaldoEVersaoPorUsuario(3L));
+        liberar.countDown();
+
+        assertEquals(naTransacao.getValor(), BigDecimal.ONE);
+        assertEquals(foraDaTransacao.get(10, TimeUnit.SECONDS).getValor(), BigDecimal.ZERO);
+        executor.shutdown();
+        Mockito.verify(saldoUsuarioRepository, Mockito.times(2)).findById(3L);
+    }
+
+    private double compartilhadas(String metodo) {
+        Counter contador = meterRegistry.find("financas.coalescencia.compartilhadas").tag("method", metodo).counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Tempo esgotado aguardando a condição");
+            Thread.sleep(5);
+        }
+    }
+}
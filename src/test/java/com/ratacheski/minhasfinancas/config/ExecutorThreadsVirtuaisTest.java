@@ -0,0 +1,34 @@
+package com.ratacheski.minhasfinancas.config;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutorThreadsVirtuaisTest {
+
+    @Test
+    void deveExecutarCadaTarefaEmUmaThreadVirtual() throws Exception {
+        Assumptions.assumeTrue(Runtime.version().feature() >= 21);
+        ExecutorThreadsVirtuais executor = ExecutorThreadsVirtuais.criar("teste-virtual-");
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get();
+
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+            assertTrue(thread.getName().startsWith("teste-virtual-"));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void naoDeveCriarOExecutorEmJvmSemThreadsVirtuais() {
+        Assumptions.assumeTrue(Runtime.version().feature() < 21);
+
+        IllegalStateException erro = assertThrows(IllegalStateException.class, () -> ExecutorThreadsVirtuais.criar("teste-virtual-"));
+
+        assertEquals(erro.getMessage(), "Threads virtuais exigem Java 21 ou superior; esta JVM é a " + Runtime.version().feature() + ".");
+    }
+}
@@ -0,0 +1,106 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Dois bancos H2 fazem o papel de primário e réplica; a réplica recebe as migrações e um saldo que só existe nela.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + LeituraEmReplicaTest.URL_PRIMARIO,
+        "financas.datasource.replicas[0].url=" + LeituraEmReplicaTest.URL_REPLICA
+})
+class LeituraEmReplicaTest {
+
+    static final String URL_PRIMARIO = "jdbc:h2:mem:primario;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+    static final long USUARIO_DA_REPLICA = 999L;
+
+    static JdbcTemplate primario = new JdbcTemplate(new DriverManagerDataSource(URL_PRIMARIO, "sa", "sa"));
+    static JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", "sa"));
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    AfinidadePrimario afinidadePrimario;
+
+    @BeforeAll
+    static void migrarReplica() {
+        Flyway.configure()
+                .dataSource(replica.getDataSource())
+                .locations("classpath:db/migration/h2")
+                .schemas("financas")
+                .placeholders(Map.of("particionarLancamento", "false"))
+                .load()
+                .migrate();
+        replica.update("insert into financas.saldo_usuario (id_usuario, valor, versao) values (?, 123, 1)", USUARIO_DA_REPLICA);
+    }
+
+    @AfterEach
+    void limpar() {
+        afinidadePrimario.limparUsuario();
+        primario.update("delete from financas.lancamento");
+        primario.update("delete from financas.saldo_usuario");
+        primario.update("delete from financas.fluxo_mensal");
+        primario.update("delete from financas.usuario");
+    }
+
+    @Test
+    void deveLerDaReplicaNasTransacoesSomenteLeitura() {
+        assertEquals(0, lancamentoService.obterSaldoPorUsuario(USUARIO_DA_REPLICA).compareTo(new BigDecimal("123")));
+        assertEquals(lancamentoService.obterVersaoPorUsuario(USUARIO_DA_REPLICA), 1L);
+    }
+
+    @Test
+    void deveEscreverNoPrimario() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder().nome("Usuario").email("usuario@email.com").senha("senha").build());
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamentoService.salvarLancamento(lancamento);
+
+        assertEquals(primario.queryForObject("select count(*) from financas.lancamento", Long.class), 1L);
+        assertEquals(replica.queryForObject("select count(*) from financas.lancamento", Long.class), 0L);
+    }
+
+    @Test
+    void deveLerDoPrimarioLogoAposEscritaDoUsuario() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder().nome("Usuario").email("usuario@email.com").senha("senha").build());
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento = lancamentoService.salvarLancamento(lancamento);
+        lancamento.setStatusLancamento(StatusLancamento.EFETIVADO);
+        lancamentoService.atualizarLancamento(lancamento);
+        assertEquals(lancamentoService.obterVersaoPorUsuario(usuario.getId()), 0L);
+
+        afinidadePrimario.definirUsuario(usuario.getId());
+
+        assertEquals(0, lancamentoService.obterSaldoPorUsuario(usuario.getId()).compareTo(BigDecimal.TEN));
+        assertEquals(lancamentoService.obterVersaoPorUsuario(usuario.getId()), 2L);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ratacheski.minhasfinancas.config;
+
+import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepository;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+class MetricasAspectTest {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Test
+    void deveCronometrarMetodoDoServicoComSucesso() {
+        lancamentoService.obterSaldoPorUsuario(1L);
+
+        Timer timer = meterRegistry.find("financas.servico")
+                .tags("class", "LancamentoServiceBean", "method", "obterSaldoPorUsuario",
+                        "outcome", "SUCCESS", "exception", "none", "tipo", "none", "status", "none")
+                .timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() >= 1);
+    }
+
+    @Test
+    void deveCronometrarErroDoServicoComTipoDoLancamento() {
+        Lancamento lancamento = Lancamento.builder().tipoLancamento(TipoLancamento.RECEITA).build();
+
+        assertThrows(RegraNegocioException.class, () -> lancamentoService.salvarLancamento(lancamento));
+
+        Timer timer = meterRegistry.find("financas.servico")
+                .tags("method", "salvarLancamento", "outcome", "ERROR",
+                        "exception", "RegraNegocioException", "tipo", "RECEITA")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(timer.count(), 1);
+    }
+
+    @Test
+    void deveCronometrarConsultasDoRepositorioPorInterface() {
+        lancamentoRepository.count();
+        lancamentoRepository.obterProjecaoPorId(1L);
+        lancamentoRepository.buscarAposChave(new Lancamento(), null, 10);
+
+        assertNotNull(meterRegistry.find("financas.repositorio")
+                .tags("class", "LancamentoRepository", "method", "count", "outcome", "SUCCESS").timer());
+        assertNotNull(meterRegistry.find("financas.repositorio")
+                .tags("class", "LancamentoRepository", "method", "obterProjecaoPorId", "outcome", "SUCCESS").timer());
+        assertNotNull(meterRegistry.find("financas.repositorio")
+                .tags("class", "LancamentoRepository", "method", "buscarAposChave", "outcome", "SUCCESS").timer());
+        assertEquals(meterRegistry.find("financas.repositorio").tags("method", "buscarAposChave").timers().size(), 1);
+    }
+
+    @Test
+    void deveRegistrarMetricasDoHibernateEDoPoolDeConexoes() {
+        lancamentoRepository.count();
+
+        assertNotNull(meterRegistry.find("hibernate.query.executions").functionCounter());
+        assertNotNull(meterRegistry.find("hibernate.flushes").functionCounter());
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").gauge());
+    }
+}
@@ -0,0 +1,92 @@
+package com.ratacheski.minhasfinancas.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RoteamentoDataSourceTest {
+
+    DataSource primario = Mockito.mock(DataSource.class);
+    DataSource replica1 = Mockito.mock(DataSource.class);
+    DataSource replica2 = Mockito.mock(DataSource.class);
+    Connection conexaoPrimario = Mockito.mock(Connection.class);
+    Connection conexaoReplica1 = Mockito.mock(Connection.class);
+    Connection conexaoReplica2 = Mockito.mock(Connection.class);
+    AfinidadePrimario afinidadePrimario = new AfinidadePrimario(Duration.ofMinutes(1));
+    RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, Arrays.asList(replica1, replica2),
+            afinidadePrimario, Duration.ofMinutes(1));
+
+    @BeforeEach
+    void configurarConexoes() throws SQLException {
+        Mockito.when(primario.getConnection()).thenReturn(conexaoPrimario);
+        Mockito.when(replica1.getConnection()).thenReturn(conexaoReplica1);
+        Mockito.when(replica2.getConnection()).thenReturn(conexaoReplica2);
+    }
+
+    @AfterEach
+    void limpar() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        afinidadePrimario.limparUsuario();
+    }
+
+    @Test
+    void deveUsarOPrimarioForaDeTransacaoSomenteLeitura() throws SQLException {
+        assertSame(roteamento.getConnection(), conexaoPrimario);
+        Mockito.verifyNoInteractions(replica1, replica2);
+    }
+
+    @Test
+    void deveAlternarAsReplicasEmTransacaoSomenteLeitura() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(roteamento.getConnection(), conexaoReplica1);
+        assertSame(roteamento.getConnection(), conexaoReplica2);
+        assertSame(roteamento.getConnection(), conexaoReplica1);
+        Mockito.verifyNoInteractions(primario);
+    }
+
+    @Test
+    void deveTirarDoRodizioAReplicaQueRecusouConexao() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(replica1.getConnection()).thenThrow(new SQLException("Conexão recusada"));
+
+        assertSame(roteamento.getConnection(), conexaoReplica2);
+        assertSame(roteamento.getConnection(), conexaoReplica2);
+        assertSame(roteamento.getConnection(), conexaoReplica2);
+        assertEquals(roteamento.replicasDisponiveis(), 1);
+        Mockito.verify(replica1, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    void deveRecorrerAoPrimarioQuandoNenhumaReplicaEstiverDisponivel() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(replica1.getConnection()).thenThrow(new SQLException("Conexão recusada"));
+        Mockito.when(replica2.getConnection()).thenThrow(new SQLException("Conexão recusada"));
+
+        assertSame(roteamento.getConnection(), conexaoPrimario);
+        assertSame(roteamento.getConnection(), conexaoPrimario);
+        assertEquals(roteamento.replicasDisponiveis(), 0);
+    }
+
+    @Test
+    void deveLerDoPrimarioAposEscritaDoUsuarioDaRequisicao() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        afinidadePrimario.registrarEscrita(1L);
+
+        afinidadePrimario.definirUsuario(2L);
+        assertSame(roteamento.getConnection(), conexaoReplica1);
+        afinidadePrimario.definirUsuario(1L);
+        assertSame(roteamento.getConnection(), conexaoPrimario);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.service.LancamentoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+class CacheSegundoNivelTest {
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    FluxoMensalRepository fluxoMensalRepository;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Statistics statistics;
+    Usuario usuario;
+    Lancamento lancamento;
+
+    @BeforeEach
+    void criarLancamento() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        usuario = usuarioRepository.save(Usuario.builder().nome("Usuario").email("cache@teste.com").senha("123").build());
+        lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento = lancamentoRepository.save(lancamento);
+    }
+
+    @AfterEach
+    void limpar() {
+        lancamentoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+        saldoUsuarioRepository.deleteAllInBatch();
+        fluxoMensalRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deveObterUsuarioELancamentoDoCacheSemConsultarOBanco() {
+        // Inserções com id IDENTITY não populam o cache; a primeira leitura do usuário é que o coloca na região.
+        usuarioRepository.findById(usuario.getId());
+        statistics.clear();
+
+        assertTrue(usuarioRepository.findById(usuario.getId()).isPresent());
+        assertTrue(lancamentoRepository.findById(lancamento.getId()).isPresent());
+
+        assertEquals(statistics.getPrepareStatementCount(), 0);
+        assertEquals(statistics.getDomainDataRegionStatistics("usuario").getHitCount(), 1);
+        assertEquals(statistics.getDomainDataRegionStatistics("lancamento").getHitCount(), 1);
+    }
+
+    @Test
+    void deveInvalidarLancamentosAlteradosEmLote() {
+        lancamentoRepository.findById(lancamento.getId());
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+
+        lancamentoService.atualizarStatusEmLote(filtro, List.of(lancamento.getId()), StatusLancamento.EFETIVADO);
+
+        assertEquals(lancamentoRepository.findById(lancamento.getId()).get().getStatusLancamento(), StatusLancamento.EFETIVADO);
+    }
+
+    @Test
+    void deveInvalidarLancamentosRemovidosEmLote() {
+        lancamentoRepository.findById(lancamento.getId());
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+
+        lancamentoService.removerEmLote(filtro, List.of(lancamento.getId()));
+
+        assertTrue(lancamentoRepository.findById(lancamento.getId()).isEmpty());
+    }
+
+    @Test
+    void deveInvalidarLancamentoAlteradoParcialmente() {
+        lancamentoRepository.findById(lancamento.getId());
+
+        lancamentoService.atualizarParcialmente(lancamento.getId(), usuario.getId(), lancamento.getVersao(),
+                Lancamento.builder().descricao("Descricao alterada").build());
+
+        Lancamento atualizado = lancamentoRepository.findById(lancamento.getId()).get();
+        assertEquals(atualizado.getDescricao(), "Descricao alterada");
+        assertEquals(atualizado.getVersao(), lancamento.getVersao() + 1);
+    }
+
+    @Test
+    void deveManterOCacheAposEscritasNativasNoSaldoENoFluxo() {
+        transactionTemplate.execute(status -> {
+            saldoUsuarioRepository.adicionarAoSaldo(usuario.getId(), BigDecimal.TEN);
+            return fluxoMensalRepository.adicionarAoFluxo(usuario.getId(), 2020, 1, TipoLancamento.RECEITA,
+                    StatusLancamento.PENDENTE, BigDecimal.TEN, 1L);
+        });
+        statistics.clear();
+
+        lancamentoRepository.findById(lancamento.getId());
+
+        assertEquals(statistics.getPrepareStatementCount(), 0);
+    }
+
+    @Test
+    void deveExporATaxaDeAcertosPorRegiao() {
+        lancamentoRepository.findById(lancamento.getId());
+
+        double taxa = meterRegistry.get("financas.cache.segundo.nivel.taxa.acertos").tag("regiao", "lancamento")
+                .gauge().value();
+
+        assertTrue(taxa > 0 && taxa <= 1);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensal;
+import com.ratacheski.minhasfinancas.model.entity.FluxoMensalId;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class FluxoMensalRepositoryTest {
+
+    @Autowired
+    FluxoMensalRepository fluxoMensalRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Test
+    void deveAdicionarDeltaAoFluxoExistente() {
+        entityManager.persist(criarFluxo(2020, 1, BigDecimal.TEN, 1L));
+        entityManager.flush();
+        entityManager.clear();
+
+        int atualizados = fluxoMensalRepository.adicionarAoFluxo(1L, 2020, 1, TipoLancamento.RECEITA,
+                StatusLancamento.EFETIVADO, new BigDecimal("5"), 1L);
+        entityManager.clear();
+
+        FluxoMensal fluxo = entityManager.find(FluxoMensal.class,
+                new FluxoMensalId(1L, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO));
+        assertEquals(atualizados, 1);
+        assertEquals(0, fluxo.getValor().compareTo(new BigDecimal("15")));
+        assertEquals(fluxo.getQuantidade(), 2L);
+    }
+
+    @Test
+    void deveCriarLinhaNoFluxoComTipoEStatusPorNome() {
+        int inseridos = fluxoMensalRepository.adicionarAoFluxo(1L, 2020, 2, TipoLancamento.RECEITA,
+                StatusLancamento.EFETIVADO, BigDecimal.TEN, 1L);
+        entityManager.clear();
+
+        FluxoMensal fluxo = entityManager.find(FluxoMensal.class,
+                new FluxoMensalId(1L, 2020, 2, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO));
+        assertEquals(inseridos, 1);
+        assertEquals(0, fluxo.getValor().compareTo(BigDecimal.TEN));
+        assertEquals(fluxo.getQuantidade(), 1L);
+    }
+
+    @Test
+    void deveBuscarApenasOsMesesDoPeriodoComLancamentos() {
+        entityManager.persist(criarFluxo(2019, 12, BigDecimal.ONE, 1L));
+        entityManager.persist(criarFluxo(2020, 1, BigDecimal.TEN, 1L));
+        entityManager.persist(criarFluxo(2020, 11, BigDecimal.ZERO, 0L));
+        entityManager.persist(criarFluxo(2021, 2, BigDecimal.TEN, 1L));
+        entityManager.persist(criarFluxo(2021, 3, BigDecimal.ONE, 1L));
+
+        List<FluxoMensal> fluxo = fluxoMensalRepository.buscarPorUsuarioEPeriodo(1L, StatusLancamento.EFETIVADO, 202001, 202102);
+
+        assertEquals(fluxo.size(), 2);
+        assertEquals(fluxo.get(0).getAno(), 2020);
+        assertEquals(fluxo.get(1).getMes(), 2);
+    }
+
+    private static FluxoMensal criarFluxo(Integer ano, Integer mes, BigDecimal valor, Long quantidade) {
+        return FluxoMensal.builder()
+                .idUsuario(1L)
+                .ano(ano)
+                .mes(mes)
+                .tipoLancamento(TipoLancamento.RECEITA)
+                .statusLancamento(StatusLancamento.EFETIVADO)
+                .valor(valor)
+                .quantidade(quantidade)
+                .build();
+    }
+}
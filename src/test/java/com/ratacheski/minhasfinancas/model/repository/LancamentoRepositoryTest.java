@@ -1,20 +1,31 @@
 package com.ratacheski.minhasfinancas.model.repository;
 
 import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
 import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
 import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.EstadoSaldoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import com.ratacheski.minhasfinancas.model.projection.TotalLancamentos;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.LongSummaryStatistics;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -69,6 +80,283 @@ public class LancamentoRepositoryTest {
         assertTrue(lancamentoEncontrado.isPresent());
     }
 
+    @Test
+    void deveObterEstadoGravadoIgnorandoAlteracoesPendentes() {
+        Lancamento lancamento = criarEPersistirLancamento();
+        entityManager.flush();
+        lancamento.setStatusLancamento(StatusLancamento.EFETIVADO);
+
+        Optional<EstadoSaldoLancamento> estado = lancamentoRepository.obterEstadoSaldoPorId(lancamento.getId());
+
+        assertTrue(estado.isPresent());
+        assertEquals(estado.get().getStatusLancamento(), StatusLancamento.PENDENTE);
+    }
+
+    @Test
+    void deveCalcularSaldosEfetivadosPorUsuario() {
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento receita = criarLancamento();
+        receita.setUsuario(usuario);
+        receita.setStatusLancamento(StatusLancamento.EFETIVADO);
+        entityManager.persist(receita);
+        Lancamento despesa = criarLancamento();
+        despesa.setUsuario(usuario);
+        despesa.setValor(BigDecimal.ONE);
+        despesa.setTipoLancamento(TipoLancamento.DESPESA);
+        despesa.setStatusLancamento(StatusLancamento.EFETIVADO);
+        entityManager.persist(despesa);
+        Lancamento pendente = criarLancamento();
+        pendente.setUsuario(usuario);
+        entityManager.persist(pendente);
+
+        List<SaldoUsuario> saldos = lancamentoRepository.calcularSaldosEfetivados();
+
+        assertEquals(saldos.size(), 1);
+        assertEquals(saldos.get(0).getIdUsuario(), usuario.getId());
+        assertEquals(0, saldos.get(0).getValor().compareTo(new BigDecimal("9")));
+    }
+
+    @Test
+    void devePaginarLancamentosPorChaveEmOrdemDeAnoMesEId() {
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        for (int mes = 3; mes >= 1; mes--) {
+            Lancamento lancamento = criarLancamento();
+            lancamento.setUsuario(usuario);
+            lancamento.setMes(mes);
+            entityManager.persist(lancamento);
+        }
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+
+        Slice<LancamentoProjecao> primeiraPagina = lancamentoRepository.buscarAposChave(filtro, null, 2);
+        LancamentoProjecao ultimo = primeiraPagina.getContent().get(1);
+        Slice<LancamentoProjecao> segundaPagina = lancamentoRepository.buscarAposChave(filtro, ChaveLancamento.de(ultimo), 2);
+
+        assertTrue(primeiraPagina.hasNext());
+        assertEquals(primeiraPagina.getContent().get(0).getMes(), 1);
+        assertEquals(ultimo.getMes(), 2);
+        assertFalse(segundaPagina.hasNext());
+        assertEquals(segundaPagina.getNumberOfElements(), 1);
+        assertEquals(segundaPagina.getContent().get(0).getMes(), 3);
+        assertEquals(segundaPagina.getContent().get(0).getIdUsuario(), usuario.getId());
+    }
+
+    @Test
+    void deveObterProjecaoDeUmLancamentoPorId() {
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(usuario);
+        entityManager.persist(lancamento);
+
+        Optional<LancamentoProjecao> projecao = lancamentoRepository.obterProjecaoPorId(lancamento.getId());
+
+        assertTrue(projecao.isPresent());
+        assertEquals(projecao.get().getIdUsuario(), usuario.getId());
+        assertEquals(projecao.get().getDescricao(), lancamento.getDescricao());
+        assertEquals(projecao.get().getTipoLancamento(), lancamento.getTipoLancamento());
+    }
+
+    @Test
+    void deveFiltrarPorDescricaoIgnorandoMaiusculasNaBuscaPaginada() {
+        Lancamento lancamento = criarLancamento();
+        lancamento.setDescricao("Conta de Luz");
+        entityManager.persist(lancamento);
+        entityManager.persist(criarLancamento());
+        Lancamento filtro = new Lancamento();
+        filtro.setDescricao("LUZ");
+
+        Slice<LancamentoProjecao> pagina = lancamentoRepository.buscarAposChave(filtro, null, 10);
+
+        assertEquals(pagina.getNumberOfElements(), 1);
+        assertEquals(pagina.getContent().get(0).getDescricao(), "Conta de Luz");
+    }
+
+    @Test
+    void deveFiltrarPorTrechoDaDescricaoSemInterpretarCuringasNaBuscaPaginada() {
+        for (String descricao : List.of("Desconto 100%", "Desconto 1000", "Pagamento_avulso", "Pagamento avulso")) {
+            Lancamento lancamento = criarLancamento();
+            lancamento.setDescricao(descricao);
+            entityManager.persist(lancamento);
+        }
+        Lancamento porcentagem = new Lancamento();
+        porcentagem.setDescricao("0%");
+        Lancamento sublinhado = new Lancamento();
+        sublinhado.setDescricao("O_A");
+        Lancamento trecho = new Lancamento();
+        trecho.setDescricao("CONTO 1");
+
+        assertEquals(descricoes(lancamentoRepository.buscarAposChave(porcentagem, null, 10)), List.of("Desconto 100%"));
+        assertEquals(descricoes(lancamentoRepository.buscarAposChave(sublinhado, null, 10)), List.of("Pagamento_avulso"));
+        assertEquals(descricoes(lancamentoRepository.buscarAposChave(trecho, null, 10)).size(), 2);
+    }
+
+    private static List<String> descricoes(Slice<LancamentoProjecao> pagina) {
+        return pagina.getContent().stream().map(LancamentoProjecao::getDescricao).collect(Collectors.toList());
+    }
+
+    @Test
+    void devePercorrerLancamentosDoUsuarioEmLotesLimpandoOContexto() {
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        List<Lancamento> persistidos = new ArrayList<>();
+        for (int mes = 5; mes >= 1; mes--) {
+            Lancamento lancamento = criarLancamento();
+            lancamento.setUsuario(usuario);
+            lancamento.setMes(mes);
+            persistidos.add(entityManager.persist(lancamento));
+        }
+        entityManager.persist(criarLancamento());
+        entityManager.flush();
+
+        entityManager.clear();
+
+        List<Integer> meses = new ArrayList<>();
+        List<Long> usuarios = new ArrayList<>();
+        long lidos = lancamentoRepository.percorrerPorUsuario(usuario.getId(), 2, lancamento -> {
+            meses.add(lancamento.getMes());
+            usuarios.add(lancamento.getUsuario().getId());
+        });
+
+        assertEquals(lidos, 5);
+        assertEquals(meses, Arrays.asList(1, 2, 3, 4, 5));
+        assertTrue(usuarios.stream().allMatch(usuario.getId()::equals));
+        assertFalse(entityManager.getEntityManager().contains(persistidos.get(0)));
+    }
+
+    @Test
+    void deveInserirLancamentosEmLote() {
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        List<Lancamento> lancamentos = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            Lancamento lancamento = criarLancamento();
+            lancamento.setUsuario(usuario);
+            lancamentos.add(lancamento);
+        }
+
+        int inseridos = lancamentoRepository.inserirEmLote(lancamentos, 500);
+
+        assertEquals(inseridos, 1200);
+        assertEquals(lancamentoRepository.count(), 1200);
+        assertTrue(lancamentos.stream().allMatch(lancamento -> lancamento.getId() != null));
+        LongSummaryStatistics ids = lancamentos.stream().mapToLong(Lancamento::getId).summaryStatistics();
+        assertTrue(ids.getMax() - ids.getMin() < 1200 + 50, "Ids reservados sem uso: " + ids);
+    }
+
+    @Test
+    void deveAtualizarStatusEmLoteApenasDoUsuarioDono() {
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Usuario outroUsuario = UsuarioRepositoryTest.criarUsuario();
+        outroUsuario.setEmail("outro@teste.com");
+        entityManager.persist(outroUsuario);
+        Lancamento doUsuario = criarLancamento();
+        doUsuario.setUsuario(usuario);
+        entityManager.persist(doUsuario);
+        Lancamento deOutroUsuario = criarLancamento();
+        deOutroUsuario.setUsuario(outroUsuario);
+        entityManager.persist(deOutroUsuario);
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        filtro.setStatusLancamento(StatusLancamento.PENDENTE);
+        List<Long> ids = Arrays.asList(doUsuario.getId(), deOutroUsuario.getId());
+
+        List<TotalLancamentos> totais = lancamentoRepository.totalizarEmLote(filtro, ids, StatusLancamento.EFETIVADO);
+        int atualizados = lancamentoRepository.atualizarStatusEmLote(filtro, ids, StatusLancamento.EFETIVADO);
+
+        assertEquals(totais.size(), 1);
+        assertEquals(0, totais.get(0).getValor().compareTo(BigDecimal.TEN));
+        assertEquals(totais.get(0).getQuantidade(), 1L);
+        assertEquals(atualizados, 1);
+        assertEquals(entityManager.find(Lancamento.class, doUsuario.getId()).getStatusLancamento(), StatusLancamento.EFETIVADO);
+        assertEquals(entityManager.find(Lancamento.class, deOutroUsuario.getId()).getStatusLancamento(), StatusLancamento.PENDENTE);
+    }
+
+    @Test
+    void deveAtualizarParcialmenteApenasOsCamposInformadosRetornandoOEstadoAnterior() {
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(usuario);
+        entityManager.persist(lancamento);
+        entityManager.flush();
+        entityManager.clear();
+        Lancamento alteracoes = Lancamento.builder().statusLancamento(StatusLancamento.EFETIVADO).build();
+
+        Optional<LancamentoProjecao> anterior = lancamentoRepository.atualizarParcialmente(lancamento.getId(), usuario.getId(), 0L, alteracoes);
+
+        assertTrue(anterior.isPresent());
+        assertEquals(anterior.get().getStatusLancamento(), StatusLancamento.PENDENTE);
+        assertEquals(anterior.get().getIdUsuario(), usuario.getId());
+        assertEquals(anterior.get().getVersao(), 0L);
+        Lancamento atualizado = entityManager.find(Lancamento.class, lancamento.getId());
+        assertEquals(atualizado.getStatusLancamento(), StatusLancamento.EFETIVADO);
+        assertEquals(atualizado.getDescricao(), lancamento.getDescricao());
+        assertEquals(atualizado.getVersao(), 1L);
+    }
+
+    @Test
+    void naoDeveAtualizarParcialmenteComVersaoDesatualizada() {
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(usuario);
+        entityManager.persist(lancamento);
+        entityManager.flush();
+        Lancamento alteracoes = Lancamento.builder().descricao("Outra descricao").build();
+
+        Optional<LancamentoProjecao> anterior = lancamentoRepository.atualizarParcialmente(lancamento.getId(),
+                usuario.getId(), 3L, alteracoes);
+
+        assertTrue(anterior.isEmpty());
+        entityManager.clear();
+        assertEquals(entityManager.find(Lancamento.class, lancamento.getId()).getDescricao(), lancamento.getDescricao());
+    }
+
+    @Test
+    void naoDeveAtualizarParcialmenteLancamentoDeOutroUsuario() {
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(entityManager.persist(UsuarioRepositoryTest.criarUsuario()));
+        entityManager.persist(lancamento);
+        Usuario outroUsuario = UsuarioRepositoryTest.criarUsuario();
+        outroUsuario.setEmail("outro@email.com");
+        entityManager.persist(outroUsuario);
+        entityManager.flush();
+        Lancamento alteracoes = Lancamento.builder().descricao("Outra descricao").build();
+
+        Optional<LancamentoProjecao> anterior = lancamentoRepository.atualizarParcialmente(lancamento.getId(),
+                outroUsuario.getId(), null, alteracoes);
+
+        assertTrue(anterior.isEmpty());
+        entityManager.clear();
+        assertEquals(entityManager.find(Lancamento.class, lancamento.getId()).getDescricao(), lancamento.getDescricao());
+    }
+
+    @Test
+    void deveRemoverEmLotePorFiltro() {
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        for (int mes = 1; mes <= 3; mes++) {
+            Lancamento lancamento = criarLancamento();
+            lancamento.setUsuario(usuario);
+            lancamento.setMes(mes);
+            entityManager.persist(lancamento);
+        }
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        filtro.setMes(2);
+
+        int removidos = lancamentoRepository.removerEmLote(filtro, null);
+
+        assertEquals(removidos, 1);
+        assertEquals(lancamentoRepository.count(), 2);
+    }
+
+    @Test
+    void deveCriarOsIndicesDasConsultasPelasMigracoes() {
+        List<?> indices = entityManager.getEntityManager()
+                .createNativeQuery("select index_name from information_schema.indexes " +
+                        "where table_schema = 'FINANCAS' and table_name = 'LANCAMENTO'")
+                .getResultList();
+
+        assertTrue(indices.contains("IDX_LANCAMENTO_USUARIO_ANO_MES"));
+        assertTrue(indices.contains("IDX_LANCAMENTO_USUARIO_TIPO_STATUS"));
+    }
+
     private Lancamento criarEPersistirLancamento() {
         Lancamento lancamento = criarLancamento();
         lancamento = entityManager.persist(lancamento);
@@ -86,4 +374,22 @@ public class LancamentoRepositoryTest {
                 .dataCadastro(LocalDate.now())
                 .build();
     }
+
+    /**
+     * Grava um usuário com {@code quantidade} lançamentos, do mês {@code quantidade} ao mês 1 (módulo 12).
+     */
+    public static Usuario criarUsuarioComLancamentos(UsuarioRepository usuarioRepository,
+                                                     LancamentoRepository lancamentoRepository,
+                                                     String email, int quantidade) {
+        Usuario usuario = usuarioRepository.save(Usuario.builder().nome("Usuario").email(email).senha("123").build());
+        List<Lancamento> lancamentos = new ArrayList<>();
+        for (int i = quantidade; i > 0; i--) {
+            Lancamento lancamento = criarLancamento();
+            lancamento.setMes((i - 1) % 12 + 1);
+            lancamento.setUsuario(usuario);
+            lancamentos.add(lancamento);
+        }
+        lancamentoRepository.saveAll(lancamentos);
+        return usuario;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.ratacheski.minhasfinancas.model.repository;
+
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class SaldoUsuarioRepositoryTest {
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Test
+    void deveAdicionarDeltaAoSaldoExistente() {
+        entityManager.persist(SaldoUsuario.builder().idUsuario(1L).valor(BigDecimal.TEN).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        int atualizados = saldoUsuarioRepository.adicionarAoSaldo(1L, new BigDecimal("-2.50"));
+        entityManager.clear();
+
+        assertEquals(atualizados, 1);
+        assertEquals(0, entityManager.find(SaldoUsuario.class, 1L).getValor().compareTo(new BigDecimal("7.50")));
+    }
+
+    @Test
+    void deveCriarOSaldoNaPrimeiraEscritaDoUsuario() {
+        int atualizados = saldoUsuarioRepository.adicionarAoSaldo(1L, BigDecimal.TEN);
+        entityManager.clear();
+
+        SaldoUsuario saldo = entityManager.find(SaldoUsuario.class, 1L);
+        assertEquals(atualizados, 1);
+        assertEquals(0, saldo.getValor().compareTo(BigDecimal.TEN));
+        assertEquals(saldo.getVersao(), 1L);
+    }
+
+    @Test
+    void deveIncrementarAVersaoAoAdicionarDeltaMesmoQueZero() {
+        saldoUsuarioRepository.adicionarAoSaldo(1L, BigDecimal.TEN);
+
+        saldoUsuarioRepository.adicionarAoSaldo(1L, BigDecimal.ZERO);
+
+        assertEquals(saldoUsuarioRepository.obterVersao(1L), Optional.of(2L));
+    }
+
+    @Test
+    void naoDeveObterVersaoDeUsuarioSemRegistro() {
+        assertEquals(saldoUsuarioRepository.obterVersao(1L), Optional.empty());
+    }
+}
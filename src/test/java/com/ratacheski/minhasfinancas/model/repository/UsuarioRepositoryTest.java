@@ -8,10 +8,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -81,6 +85,31 @@ class UsuarioRepositoryTest {
 
     }
 
+    @Test
+    void naoDevePersistirDoisUsuariosComOMesmoEmail() {
+        //cenario
+        entityManager.persist(criarUsuario());
+
+        //acao / verificacao
+        Assertions.assertThatThrownBy(() -> usuarioRepository.saveAndFlush(criarUsuario()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void deveListarOsEmailsCadastrados() {
+        //cenario
+        entityManager.persist(criarUsuario());
+
+        //acao
+        List<String> emails;
+        try (Stream<String> stream = usuarioRepository.listarEmails()) {
+            emails = stream.collect(Collectors.toList());
+        }
+
+        //verificacao
+        Assertions.assertThat(emails).containsExactly("usuario@teste.com");
+    }
+
     public static Usuario criarUsuario() {
         return Usuario.builder()
                 .nome("Usuario")
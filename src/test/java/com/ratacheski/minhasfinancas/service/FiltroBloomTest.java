@@ -0,0 +1,37 @@
+package com.ratacheski.minhasfinancas.service;
+
+import com.ratacheski.minhasfinancas.service.bean.FiltroBloom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FiltroBloomTest {
+
+    @Test
+    void deveReconhecerTodosOsValoresAdicionados() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("usuario" + i + "@email.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertTrue(filtro.podeConter("usuario" + i + "@email.com"));
+        }
+    }
+
+    @Test
+    void deveManterOsFalsosPositivosProximosDaProbabilidadeInformada() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("usuario" + i + "@email.com");
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.podeConter("novo" + i + "@email.com")) {
+                falsosPositivos++;
+            }
+        }
+
+        Assertions.assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+    }
+}
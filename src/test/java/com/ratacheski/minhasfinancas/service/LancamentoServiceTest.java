@@ -1,14 +1,23 @@
 package com.ratacheski.minhasfinancas.service;
 
+import com.ratacheski.minhasfinancas.exception.ConflitoVersaoException;
 import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
 import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.SaldoUsuario;
 import com.ratacheski.minhasfinancas.model.entity.Usuario;
 import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.enums.TipoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.EstadoSaldoLancamento;
+import com.ratacheski.minhasfinancas.model.projection.LancamentoProjecao;
+import com.ratacheski.minhasfinancas.model.projection.TotalLancamentos;
+import com.ratacheski.minhasfinancas.model.repository.FluxoMensalRepository;
 import com.ratacheski.minhasfinancas.model.repository.LancamentoRepository;
 import com.ratacheski.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioRepository;
 import com.ratacheski.minhasfinancas.service.bean.LancamentoServiceBean;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
@@ -17,6 +26,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
+import java.time.Year;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +44,12 @@ class LancamentoServiceTest {
     @MockBean
     LancamentoRepository lancamentoRepository;
 
+    @MockBean
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @MockBean
+    FluxoMensalRepository fluxoMensalRepository;
+
     @Test
     void deveSalvarUmLancamento() {
         Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
@@ -189,4 +206,345 @@ class LancamentoServiceTest {
         exception = assertThrows(RegraNegocioException.class, () -> lancamentoServiceBean.validarLancamento(lancamento));
         assertEquals(exception.getMessage(), "Informe um tipo de lançamento.");
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveObterSaldoDaTabelaDeSaldos() {
+        Mockito.when(saldoUsuarioRepository.findById(1L))
+                .thenReturn(Optional.of(SaldoUsuario.builder().idUsuario(1L).valor(BigDecimal.TEN).build()));
+
+        BigDecimal saldo = lancamentoServiceBean.obterSaldoPorUsuario(1L);
+
+        assertEquals(saldo, BigDecimal.TEN);
+        Mockito.verifyNoInteractions(lancamentoRepository);
+    }
+
+    @Test
+    void deveRetornarSaldoZeroQuandoUsuarioNaoPossuirSaldo() {
+        Mockito.when(saldoUsuarioRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertEquals(lancamentoServiceBean.obterSaldoPorUsuario(1L), BigDecimal.ZERO);
+    }
+
+    @Test
+    void deveObterSaldoEVersaoDaMesmaLinha() {
+        Mockito.when(saldoUsuarioRepository.findById(1L)).thenReturn(Optional.of(new SaldoUsuario(1L, BigDecimal.TEN, 5L)));
+
+        SaldoUsuario saldo = lancamentoServiceBean.obterSaldoEVersaoPorUsuario(1L);
+
+        assertEquals(saldo.getValor(), BigDecimal.TEN);
+        assertEquals(saldo.getVersao(), 5L);
+        Mockito.verify(saldoUsuarioRepository, Mockito.never()).obterVersao(Mockito.anyLong());
+    }
+
+    @Test
+    void deveRetornarSaldoZeroEVersaoZeroQuandoUsuarioNaoPossuirSaldo() {
+        Mockito.when(saldoUsuarioRepository.findById(1L)).thenReturn(Optional.empty());
+
+        SaldoUsuario saldo = lancamentoServiceBean.obterSaldoEVersaoPorUsuario(1L);
+
+        assertEquals(saldo.getValor(), BigDecimal.ZERO);
+        assertEquals(saldo.getVersao(), 0L);
+    }
+
+    @Test
+    void deveIncrementarAVersaoDoUsuarioAoSalvarLancamentoPendente() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        Mockito.when(lancamentoRepository.save(lancamento)).thenReturn(lancamento);
+
+        lancamentoServiceBean.salvarLancamento(lancamento);
+
+        Mockito.verify(saldoUsuarioRepository).adicionarAoSaldo(1L, BigDecimal.ZERO);
+    }
+
+    @Test
+    void deveRetornarVersaoZeroQuandoUsuarioNaoPossuirSaldo() {
+        Mockito.when(saldoUsuarioRepository.obterVersao(1L)).thenReturn(Optional.empty());
+
+        assertEquals(lancamentoServiceBean.obterVersaoPorUsuario(1L), 0L);
+    }
+
+    @Test
+    void deveAtualizarSaldoComDeltaAoEfetivarLancamento() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1L);
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        lancamento.setTipoLancamento(TipoLancamento.DESPESA);
+        lancamento.setStatusLancamento(StatusLancamento.EFETIVADO);
+        EstadoSaldoLancamento estadoAnterior = Mockito.mock(EstadoSaldoLancamento.class);
+        Mockito.when(estadoAnterior.getStatusLancamento()).thenReturn(StatusLancamento.PENDENTE);
+        Mockito.when(lancamentoRepository.obterEstadoSaldoPorId(1L)).thenReturn(Optional.of(estadoAnterior));
+
+        lancamentoServiceBean.atualizarLancamento(lancamento);
+
+        Mockito.verify(saldoUsuarioRepository).adicionarAoSaldo(1L, BigDecimal.TEN.negate());
+        Mockito.verify(saldoUsuarioRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void deveEstornarSaldoAoRemoverLancamentoEfetivado() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1L);
+        EstadoSaldoLancamento estadoAnterior = Mockito.mock(EstadoSaldoLancamento.class);
+        Mockito.when(estadoAnterior.getIdUsuario()).thenReturn(1L);
+        Mockito.when(estadoAnterior.getTipoLancamento()).thenReturn(TipoLancamento.RECEITA);
+        Mockito.when(estadoAnterior.getStatusLancamento()).thenReturn(StatusLancamento.EFETIVADO);
+        Mockito.when(estadoAnterior.getValor()).thenReturn(BigDecimal.TEN);
+        Mockito.when(lancamentoRepository.obterEstadoSaldoPorId(1L)).thenReturn(Optional.of(estadoAnterior));
+
+        lancamentoServiceBean.removerLancamento(lancamento);
+
+        Mockito.verify(saldoUsuarioRepository).adicionarAoSaldo(1L, BigDecimal.TEN.negate());
+    }
+
+    @Test
+    void deveMoverOValorEntreLinhasDoFluxoAoMudarStatus() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1L);
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        lancamento.setStatusLancamento(StatusLancamento.EFETIVADO);
+        EstadoSaldoLancamento estadoAnterior = Mockito.mock(EstadoSaldoLancamento.class);
+        Mockito.when(estadoAnterior.getIdUsuario()).thenReturn(1L);
+        Mockito.when(estadoAnterior.getAno()).thenReturn(2020);
+        Mockito.when(estadoAnterior.getMes()).thenReturn(1);
+        Mockito.when(estadoAnterior.getTipoLancamento()).thenReturn(TipoLancamento.RECEITA);
+        Mockito.when(estadoAnterior.getStatusLancamento()).thenReturn(StatusLancamento.PENDENTE);
+        Mockito.when(estadoAnterior.getValor()).thenReturn(BigDecimal.TEN);
+        Mockito.when(lancamentoRepository.obterEstadoSaldoPorId(1L)).thenReturn(Optional.of(estadoAnterior));
+
+        lancamentoServiceBean.atualizarLancamento(lancamento);
+
+        Mockito.verify(fluxoMensalRepository).adicionarAoFluxo(1L, 2020, 1, TipoLancamento.RECEITA,
+                StatusLancamento.PENDENTE, BigDecimal.TEN.negate(), -1L);
+        Mockito.verify(fluxoMensalRepository).adicionarAoFluxo(1L, 2020, 1, TipoLancamento.RECEITA,
+                StatusLancamento.EFETIVADO, BigDecimal.TEN, 1L);
+        Mockito.verify(fluxoMensalRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void naoDeveAlterarOFluxoQuandoApenasADescricaoMudar() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1L);
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        EstadoSaldoLancamento estadoAnterior = Mockito.mock(EstadoSaldoLancamento.class);
+        Mockito.when(estadoAnterior.getIdUsuario()).thenReturn(1L);
+        Mockito.when(estadoAnterior.getAno()).thenReturn(lancamento.getAno());
+        Mockito.when(estadoAnterior.getMes()).thenReturn(lancamento.getMes());
+        Mockito.when(estadoAnterior.getTipoLancamento()).thenReturn(lancamento.getTipoLancamento());
+        Mockito.when(estadoAnterior.getStatusLancamento()).thenReturn(lancamento.getStatusLancamento());
+        Mockito.when(estadoAnterior.getValor()).thenReturn(lancamento.getValor());
+        Mockito.when(lancamentoRepository.obterEstadoSaldoPorId(1L)).thenReturn(Optional.of(estadoAnterior));
+
+        lancamentoServiceBean.atualizarLancamento(lancamento);
+
+        Mockito.verifyNoInteractions(fluxoMensalRepository);
+    }
+
+    @Test
+    void deveAtualizarParcialmenteAplicandoODeltaNoSaldo() {
+        LancamentoProjecao anterior = new LancamentoProjecao(1L, "Lancamento", 1, 2020, BigDecimal.TEN, 1L,
+                TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 2L);
+        Lancamento alteracoes = Lancamento.builder().statusLancamento(StatusLancamento.EFETIVADO).build();
+        Mockito.when(lancamentoRepository.atualizarParcialmente(1L, 1L, 2L, alteracoes)).thenReturn(Optional.of(anterior));
+
+        Lancamento lancamento = lancamentoServiceBean.atualizarParcialmente(1L, 1L, 2L, alteracoes).get();
+
+        assertEquals(lancamento.getStatusLancamento(), StatusLancamento.EFETIVADO);
+        assertEquals(lancamento.getDescricao(), "Lancamento");
+        assertEquals(lancamento.getVersao(), 3L);
+        Mockito.verify(saldoUsuarioRepository).adicionarAoSaldo(1L, BigDecimal.TEN);
+        Mockito.verify(lancamentoRepository, Mockito.never()).obterEstadoSaldoPorId(Mockito.any());
+    }
+
+    @Test
+    void deveLancarConflitoQuandoAVersaoDoLancamentoMudou() {
+        Lancamento alteracoes = Lancamento.builder().descricao("Outra").build();
+        Mockito.when(lancamentoRepository.atualizarParcialmente(1L, 1L, 2L, alteracoes)).thenReturn(Optional.empty());
+        Mockito.when(lancamentoRepository.existsByIdAndUsuarioId(1L, 1L)).thenReturn(true);
+
+        assertThrows(ConflitoVersaoException.class, () -> lancamentoServiceBean.atualizarParcialmente(1L, 1L, 2L, alteracoes));
+        Mockito.verifyNoInteractions(saldoUsuarioRepository);
+    }
+
+    @Test
+    void naoDeveAtualizarParcialmenteSemCamposAlterados() {
+        assertThrows(RegraNegocioException.class, () -> lancamentoServiceBean.atualizarParcialmente(1L, 1L, 2L, new Lancamento()));
+        Mockito.verify(lancamentoRepository, Mockito.never()).atualizarParcialmente(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void naoDeveLancarConflitoAoAtualizarParcialmenteLancamentoDeOutroUsuario() {
+        Lancamento alteracoes = Lancamento.builder().descricao("Outra").build();
+        Mockito.when(lancamentoRepository.atualizarParcialmente(1L, 1L, 2L, alteracoes)).thenReturn(Optional.empty());
+
+        assertTrue(lancamentoServiceBean.atualizarParcialmente(1L, 1L, 2L, alteracoes).isEmpty());
+        Mockito.verifyNoInteractions(saldoUsuarioRepository);
+    }
+
+    @Test
+    void naoDeveObterFluxoComPeriodoInvertido() {
+        assertThrows(RegraNegocioException.class, () -> lancamentoServiceBean.obterFluxoMensal(1L,
+                YearMonth.of(2024, 12), YearMonth.of(2020, 1), StatusLancamento.EFETIVADO));
+        Mockito.verifyNoInteractions(fluxoMensalRepository);
+    }
+
+    @Test
+    void deveCorrigirSaldosDivergentesNaReconciliacao() {
+        SaldoUsuario saldoCorreto = SaldoUsuario.builder().idUsuario(1L).valor(BigDecimal.TEN).build();
+        SaldoUsuario saldoDivergente = SaldoUsuario.builder().idUsuario(2L).valor(BigDecimal.ONE).build();
+        SaldoUsuario saldoOrfao = SaldoUsuario.builder().idUsuario(3L).valor(BigDecimal.ONE).build();
+        Mockito.when(saldoUsuarioRepository.travarTodos()).thenReturn(Arrays.asList(saldoCorreto, saldoDivergente, saldoOrfao));
+        Mockito.when(lancamentoRepository.calcularSaldosEfetivados()).thenReturn(Arrays.asList(
+                SaldoUsuario.builder().idUsuario(1L).valor(new BigDecimal("10.00")).build(),
+                SaldoUsuario.builder().idUsuario(2L).valor(BigDecimal.TEN).build()));
+        Mockito.when(saldoUsuarioRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<SaldoUsuario> corrigidos = lancamentoServiceBean.reconciliarSaldos();
+
+        assertEquals(corrigidos.size(), 2);
+        assertTrue(corrigidos.contains(SaldoUsuario.builder().idUsuario(2L).valor(BigDecimal.TEN).build()));
+        assertTrue(corrigidos.contains(SaldoUsuario.builder().idUsuario(3L).valor(BigDecimal.ZERO).build()));
+    }
+
+    @Test
+    void deveTravarOSaldoAntesDeSomarOsLancamentosNaReconciliacao() {
+        Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(1L, TipoLancamento.RECEITA,
+                StatusLancamento.EFETIVADO)).thenReturn(BigDecimal.TEN);
+
+        BigDecimal saldo = lancamentoServiceBean.reconciliarSaldoPorUsuario(1L);
+
+        assertEquals(saldo, BigDecimal.TEN);
+        InOrder ordem = Mockito.inOrder(saldoUsuarioRepository, lancamentoRepository);
+        ordem.verify(saldoUsuarioRepository).travarPorUsuario(1L);
+        ordem.verify(lancamentoRepository, Mockito.times(2))
+                .obterSaldoPorTipoLancamentoEUsuarioEStatus(Mockito.eq(1L), Mockito.any(), Mockito.any());
+        ordem.verify(saldoUsuarioRepository).save(SaldoUsuario.builder().idUsuario(1L).valor(BigDecimal.TEN).build());
+    }
+
+    @Test
+    void deveCriarAsParticoesDoAnoCorrenteEDoSeguinte() {
+        int ano = Year.now().getValue();
+
+        lancamentoServiceBean.criarParticoesLancamento();
+
+        Mockito.verify(lancamentoRepository).criarParticao(ano);
+        Mockito.verify(lancamentoRepository).criarParticao(ano + 1);
+    }
+
+    @Test
+    void deveImportarLancamentosAplicandoOSaldoUmaVezPorUsuario() {
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Lancamento pendente = LancamentoRepositoryTest.criarLancamento();
+        pendente.setUsuario(usuario);
+        pendente.setStatusLancamento(null);
+        Lancamento efetivado = LancamentoRepositoryTest.criarLancamento();
+        efetivado.setUsuario(usuario);
+        efetivado.setStatusLancamento(StatusLancamento.EFETIVADO);
+        List<Lancamento> lancamentos = Arrays.asList(pendente, efetivado, efetivado);
+        Mockito.when(lancamentoRepository.inserirEmLote(Mockito.eq(lancamentos), Mockito.anyInt())).thenReturn(3);
+
+        int importados = lancamentoServiceBean.importarLancamentos(lancamentos);
+
+        assertEquals(importados, 3);
+        assertEquals(pendente.getStatusLancamento(), StatusLancamento.PENDENTE);
+        Mockito.verify(saldoUsuarioRepository).adicionarAoSaldo(1L, new BigDecimal("20"));
+        Mockito.verify(fluxoMensalRepository).adicionarAoFluxo(1L, 2020, 1, TipoLancamento.RECEITA,
+                StatusLancamento.EFETIVADO, new BigDecimal("20"), 2L);
+    }
+
+    @Test
+    void naoDeveImportarLancamentosQuandoAlgumForInvalido() {
+        Lancamento valido = LancamentoRepositoryTest.criarLancamento();
+        valido.setUsuario(Usuario.builder().id(1L).build());
+        Lancamento invalido = LancamentoRepositoryTest.criarLancamento();
+        invalido.setUsuario(Usuario.builder().id(1L).build());
+        invalido.setMes(13);
+
+        RegraNegocioException exception = assertThrows(RegraNegocioException.class,
+                () -> lancamentoServiceBean.importarLancamentos(Arrays.asList(valido, invalido)));
+
+        assertEquals(exception.getMessage(), "Lançamento 2: Informe um mês válido.");
+        Mockito.verify(lancamentoRepository, Mockito.never()).inserirEmLote(Mockito.anyList(), Mockito.anyInt());
+    }
+
+    @Test
+    void deveSalvarParceladoDividindoOValorEntreMesesConsecutivos() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        lancamento.setValor(new BigDecimal("100"));
+        lancamento.setMes(11);
+        lancamento.setDescricao("Compra");
+        Mockito.when(lancamentoRepository.saveAll(Mockito.anyList())).then(invocation -> invocation.getArgument(0));
+
+        List<Lancamento> parcelas = lancamentoServiceBean.salvarParcelado(lancamento, 3);
+
+        assertEquals(parcelas.size(), 3);
+        assertEquals(parcelas.get(0).getValor(), new BigDecimal("33.34"));
+        assertEquals(parcelas.get(1).getValor(), new BigDecimal("33.33"));
+        assertEquals(parcelas.get(2).getValor(), new BigDecimal("33.33"));
+        assertEquals(YearMonth.of(parcelas.get(2).getAno(), parcelas.get(2).getMes()), YearMonth.of(2021, 1));
+        assertEquals(parcelas.get(0).getDescricao(), "Compra (1/3)");
+        assertTrue(parcelas.stream().allMatch(parcela -> parcela.getStatusLancamento() == StatusLancamento.PENDENTE));
+        Mockito.verify(lancamentoServiceBean, Mockito.times(1)).validarLancamento(lancamento);
+        Mockito.verify(lancamentoRepository, Mockito.times(1)).saveAll(Mockito.anyList());
+        Mockito.verify(saldoUsuarioRepository, Mockito.times(1)).adicionarAoSaldo(1L, BigDecimal.ZERO);
+    }
+
+    @Test
+    void deveSalvarRecorrenteRepetindoOValor() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+        Mockito.when(lancamentoRepository.saveAll(Mockito.anyList())).then(invocation -> invocation.getArgument(0));
+
+        List<Lancamento> recorrentes = lancamentoServiceBean.salvarRecorrente(lancamento, 12);
+
+        assertEquals(recorrentes.size(), 12);
+        assertTrue(recorrentes.stream().allMatch(recorrente -> recorrente.getValor().equals(BigDecimal.TEN)
+                && recorrente.getDescricao().equals(lancamento.getDescricao())));
+        assertEquals(recorrentes.get(11).getMes(), 12);
+        Mockito.verify(fluxoMensalRepository, Mockito.times(12)).adicionarAoFluxo(Mockito.eq(1L), Mockito.eq(2020),
+                Mockito.anyInt(), Mockito.eq(TipoLancamento.RECEITA), Mockito.eq(StatusLancamento.PENDENTE),
+                Mockito.eq(BigDecimal.TEN), Mockito.eq(1L));
+    }
+
+    @Test
+    void naoDeveSalvarParceladoComQuantidadeDeParcelasInvalida() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(1L).build());
+
+        assertThrows(RegraNegocioException.class, () -> lancamentoServiceBean.salvarParcelado(lancamento, 1));
+        assertThrows(RegraNegocioException.class, () -> lancamentoServiceBean.salvarParcelado(lancamento, 121));
+        lancamento.setValor(new BigDecimal("0.02"));
+        assertThrows(RegraNegocioException.class, () -> lancamentoServiceBean.salvarParcelado(lancamento, 3));
+        Mockito.verify(lancamentoRepository, Mockito.never()).saveAll(Mockito.anyList());
+    }
+
+    @Test
+    void deveAtualizarStatusEmLoteAplicandoODeltaNoSaldo() {
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1L).build());
+        filtro.setStatusLancamento(StatusLancamento.PENDENTE);
+        Mockito.when(lancamentoRepository.totalizarEmLote(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(Arrays.asList(
+                new TotalLancamentos(1L, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, new BigDecimal("100"), 3L),
+                new TotalLancamentos(1L, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("30"), 2L)));
+        Mockito.when(lancamentoRepository.atualizarStatusEmLote(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(5);
+
+        int atualizados = lancamentoServiceBean.atualizarStatusEmLote(filtro, null, StatusLancamento.EFETIVADO);
+
+        assertEquals(atualizados, 5);
+        Mockito.verify(saldoUsuarioRepository).adicionarAoSaldo(1L, new BigDecimal("70"));
+        Mockito.verify(fluxoMensalRepository).adicionarAoFluxo(1L, 2020, 1, TipoLancamento.RECEITA,
+                StatusLancamento.PENDENTE, new BigDecimal("-100"), -3L);
+        Mockito.verify(fluxoMensalRepository).adicionarAoFluxo(1L, 2020, 1, TipoLancamento.RECEITA,
+                StatusLancamento.EFETIVADO, new BigDecimal("100"), 3L);
+    }
+
+    @Test
+    void naoDeveRemoverEmLoteSemIdsNemFiltro() {
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1L).build());
+
+        assertThrows(RegraNegocioException.class, () -> lancamentoServiceBean.removerEmLote(filtro, null));
+        Mockito.verify(lancamentoRepository, Mockito.never()).removerEmLote(Mockito.any(), Mockito.any());
+    }
+}
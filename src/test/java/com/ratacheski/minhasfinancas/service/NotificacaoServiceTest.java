@@ -0,0 +1,258 @@
+package com.ratacheski.minhasfinancas.service;
+
+import com.ratacheski.minhasfinancas.model.entity.Lancamento;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.enums.StatusLancamento;
+import com.ratacheski.minhasfinancas.model.repository.FluxoMensalRepository;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepository;
+import com.ratacheski.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.ratacheski.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
+import com.ratacheski.minhasfinancas.service.AlteracaoLancamentos.Operacao;
+import com.ratacheski.minhasfinancas.service.bean.NotificacaoServiceBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "financas.notificacao.janela-saldo-ms=1000")
+@AutoConfigureMockMvc
+class NotificacaoServiceTest {
+
+    static final long JANELA_SALDO = 1000;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    SaldoUsuarioRepository saldoUsuarioRepository;
+
+    @Autowired
+    FluxoMensalRepository fluxoMensalRepository;
+
+    Usuario usuario;
+
+    @BeforeEach
+    void criarUsuario() {
+        usuario = usuarioRepository.save(Usuario.builder().nome("Usuario").email("eventos@teste.com").senha("123").build());
+    }
+
+    @AfterEach
+    void limpar() {
+        lancamentoRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+        saldoUsuarioRepository.deleteAllInBatch();
+        fluxoMensalRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deveEnviarAlteracaoESaldoAposOCommit() throws Exception {
+        MockHttpServletResponse eventos = assinar();
+        aguardar(eventos, "event:saldo", 1);
+
+        Lancamento lancamento = criarLancamento();
+        lancamento.setStatusLancamento(StatusLancamento.EFETIVADO);
+        lancamentoService.importarLancamentos(List.of(lancamento));
+
+        aguardar(eventos, "event:lancamentos", 1);
+        aguardar(eventos, "event:saldo", 2);
+        assertTrue(eventos.getContentAsString().contains("\"operacao\":\"INCLUSAO\""));
+        assertTrue(eventos.getContentAsString().contains("data:10"));
+    }
+
+    @Test
+    void deveAgruparRajadaDeAlteracoesEmUmEnvioDeSaldo() throws Exception {
+        MockHttpServletResponse eventos = assinar();
+        aguardar(eventos, "event:saldo", 1);
+
+        for (int i = 0; i < 5; i++) {
+            lancamentoService.salvarLancamento(criarLancamento());
+        }
+
+        aguardar(eventos, "event:lancamentos", 5);
+        aguardar(eventos, "event:saldo", 2);
+        Thread.sleep(JANELA_SALDO + 500);
+        assertEquals(contar(eventos, "event:saldo"), 2);
+    }
+
+    @Test
+    void naoDeveNotificarAlteracaoDesfeitaPorRollback() throws Exception {
+        MockHttpServletResponse eventos = assinar();
+        aguardar(eventos, "event:saldo", 1);
+
+        transactionTemplate.execute(status -> {
+            lancamentoService.salvarLancamento(criarLancamento());
+            status.setRollbackOnly();
+            return null;
+        });
+
+        Thread.sleep(JANELA_SALDO + 500);
+        assertEquals(contar(eventos, "event:lancamentos"), 0);
+        assertEquals(contar(eventos, "event:saldo"), 1);
+    }
+
+    @Test
+    void naoDeveAtrasarOsDemaisAssinantesQuandoClientesTravarem() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<String> recebidos = new CopyOnWriteArrayList<>();
+        LancamentoService servicoLancamentos = Mockito.mock(LancamentoService.class);
+        Mockito.when(servicoLancamentos.obterSaldoPorUsuario(Mockito.anyLong())).thenReturn(BigDecimal.TEN);
+        NotificacaoServiceBean notificacoes = new NotificacaoServiceBean(servicoLancamentos,
+                Mockito.mock(ObjectProvider.class), new SimpleMeterRegistry(), 60000, 0, 60000, 16, 300, 8, 100) {
+            int assinaturas;
+
+            @Override
+            protected SseEmitter criarEmitter(long tempoLimite) {
+                boolean travado = assinaturas++ < 2;
+                return new SseEmitter(tempoLimite) {
+                    @Override
+                    public void send(SseEventBuilder evento) throws IOException {
+                        if (travado) {
+                            try {
+                                liberar.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            throw new IOException("Conexão encerrada");
+                        }
+                        evento.build().forEach(parte -> recebidos.add(String.valueOf(parte.getData())));
+                    }
+                };
+            }
+        };
+        try {
+            notificacoes.assinar(1L);
+            notificacoes.assinar(1L);
+            notificacoes.assinar(2L);
+
+            for (int i = 0; i < 3; i++) {
+                notificacoes.aoAlterarLancamentos(new AlteracaoLancamentos(1L, Operacao.INCLUSAO, List.of(), 1));
+                notificacoes.aoAlterarLancamentos(new AlteracaoLancamentos(2L, Operacao.INCLUSAO, List.of(), 1));
+            }
+
+            long limite = System.currentTimeMillis() + 5000;
+            while (recebidos.stream().filter(parte -> parte.contains("event:lancamentos")).count() < 3
+                    || notificacoes.quantidadeAssinaturas() > 1) {
+                assertTrue(System.currentTimeMillis() < limite, "Eventos recebidos: " + recebidos);
+                Thread.sleep(20);
+            }
+        } finally {
+            liberar.countDown();
+            notificacoes.encerrar();
+        }
+    }
+
+    @Test
+    void deveDescartarAAssinaturaQuandoOExecutorDeEnviosEstiverCheio() throws Exception {
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        LancamentoService servicoLancamentos = Mockito.mock(LancamentoService.class);
+        Mockito.when(servicoLancamentos.obterSaldoPorUsuario(Mockito.anyLong())).thenAnswer(invocation -> {
+            iniciou.countDown();
+            liberar.await();
+            return BigDecimal.TEN;
+        });
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        NotificacaoServiceBean notificacoes = new NotificacaoServiceBean(servicoLancamentos,
+                Mockito.mock(ObjectProvider.class), registro, 60000, 0, 60000, 16, 60000, 1, 1) {
+            @Override
+            protected SseEmitter criarEmitter(long tempoLimite) {
+                SseEmitter emitter = super.criarEmitter(tempoLimite);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        try {
+            notificacoes.assinar(1L);
+            iniciou.await();
+            notificacoes.assinar(2L);
+            notificacoes.assinar(3L);
+
+            notificacoes.aoAlterarLancamentos(new AlteracaoLancamentos(3L, Operacao.INCLUSAO, List.of(), 1));
+
+            assertEquals(notificacoes.quantidadeAssinaturas(), 2);
+            assertEquals(registro.get("financas.notificacao.descartadas").counter().count(), 1.0);
+            assertThrows(IllegalStateException.class, () -> emitters.get(2).send("evento"));
+        } finally {
+            liberar.countDown();
+            notificacoes.encerrar();
+        }
+    }
+
+    private MockHttpServletResponse assinar() throws Exception {
+        return mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/" + usuario.getId() + "/eventos")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerarToken(usuario.getId()))
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private Lancamento criarLancamento() {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        return lancamento;
+    }
+
+    private static void aguardar(MockHttpServletResponse eventos, String evento, int quantidade) throws Exception {
+        long limite = System.currentTimeMillis() + 5000;
+        while (contar(eventos, evento) < quantidade) {
+            assertTrue(System.currentTimeMillis() < limite,
+                    "Esperados " + quantidade + " eventos " + evento + " em: " + eventos.getContentAsString());
+            Thread.sleep(20);
+        }
+    }
+
+    private static int contar(MockHttpServletResponse eventos, String evento) throws Exception {
+        String conteudo = eventos.getContentAsString();
+        int quantidade = 0;
+        for (int i = conteudo.indexOf(evento); i >= 0; i = conteudo.indexOf(evento, i + 1)) {
+            quantidade++;
+        }
+        return quantidade;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ratacheski.minhasfinancas.service;
+
+import com.ratacheski.minhasfinancas.service.bean.TokenServiceBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@ContextConfiguration(classes = TokenServiceBean.class)
+@TestPropertySource(properties = "financas.token.segredo=segredo-dos-testes")
+class TokenServiceTest {
+
+    @Autowired
+    TokenService tokenService;
+
+    @Test
+    void deveValidarOTokenGeradoRetornandoOUsuario() {
+        String token = tokenService.gerarToken(42L);
+
+        assertEquals(tokenService.validarToken(token), Optional.of(42L));
+    }
+
+    @Test
+    void naoDeveValidarTokenComUsuarioAdulterado() {
+        String token = tokenService.gerarToken(42L);
+
+        assertTrue(tokenService.validarToken("43" + token.substring(2)).isEmpty());
+        assertTrue(tokenService.validarToken("token").isEmpty());
+    }
+
+    @Test
+    void naoDeveValidarTokenDeOutraChave() {
+        String token = new TokenServiceBean("outro-segredo", 60000).gerarToken(42L);
+
+        assertTrue(tokenService.validarToken(token).isEmpty());
+    }
+
+    @Test
+    void naoDeveValidarTokenExpirado() {
+        TokenService expirado = new TokenServiceBean("segredo-dos-testes", -1000);
+
+        assertTrue(expirado.validarToken(expirado.gerarToken(42L)).isEmpty());
+    }
+
+    @Test
+    void naoDeveIniciarSemSegredoConfigurado() {
+        assertThrows(IllegalStateException.class, () -> new TokenServiceBean(" ", 60000));
+    }
+}
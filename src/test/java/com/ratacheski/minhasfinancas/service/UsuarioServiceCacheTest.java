@@ -0,0 +1,67 @@
+package com.ratacheski.minhasfinancas.service;
+
+import com.ratacheski.minhasfinancas.config.CacheConfiguration;
+import com.ratacheski.minhasfinancas.model.entity.Usuario;
+import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
+import com.ratacheski.minhasfinancas.service.bean.UsuarioServiceBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(classes = {UsuarioServiceBean.class, CacheConfiguration.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class UsuarioServiceCacheTest {
+
+    @Autowired
+    UsuarioService usuarioService;
+
+    @MockBean
+    UsuarioRepository usuarioRepository;
+
+    @Test
+    void deveConsultarABaseApenasNaPrimeiraBuscaPorId() {
+        Usuario usuario = Usuario.builder().id(1L).email("usuario@email.com").build();
+        Mockito.when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+
+        assertEquals(usuarioService.obterPorId(1L), Optional.of(usuario));
+        assertEquals(usuarioService.obterPorId(1L), Optional.of(usuario));
+
+        Mockito.verify(usuarioRepository, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    void naoDeveManterEmCacheUsuarioInexistente() {
+        Mockito.when(usuarioRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertFalse(usuarioService.obterPorId(2L).isPresent());
+        assertFalse(usuarioService.obterPorId(2L).isPresent());
+
+        Mockito.verify(usuarioRepository, Mockito.times(2)).findById(2L);
+    }
+
+    @Test
+    void deveInvalidarOCacheAoSalvarUsuario() {
+        Usuario usuario = Usuario.builder().id(3L).email("usuario@email.com").build();
+        Mockito.when(usuarioRepository.findById(3L)).thenReturn(Optional.of(usuario));
+        Mockito.when(usuarioRepository.save(usuario)).thenReturn(usuario);
+
+        usuarioService.obterPorId(3L);
+        usuarioService.salvarUsuario(usuario);
+        usuarioService.obterPorId(3L);
+
+        Mockito.verify(usuarioRepository, Mockito.times(2)).findById(3L);
+    }
+}
@@ -5,16 +5,26 @@ import com.ratacheski.minhasfinancas.exception.RegraNegocioException;
 import com.ratacheski.minhasfinancas.model.entity.Usuario;
 import com.ratacheski.minhasfinancas.model.repository.UsuarioRepository;
 import com.ratacheski.minhasfinancas.service.bean.UsuarioServiceBean;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.sql.SQLException;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -50,12 +60,28 @@ class UsuarioServiceTest {
         Mockito.when(usuarioRepository.findByEmail(email)).thenReturn(Optional.of(usuario));
 
         //acao
-        Usuario result = usuarioServiceBean.autenticarUsuario(email, senha);
+        Usuario result = usuarioServiceBean.autenticarUsuario(email, senha).join();
 
         //verificacao
         Assertions.assertNotNull(result);
     }
 
+    @Test
+    void deveSubstituirSenhaEmTextoPuroPeloHashAoAutenticar() {
+        //cenario
+        Usuario usuario = Usuario.builder().email("email@email.com").senha("senha").id(1L).build();
+        Mockito.when(usuarioRepository.findByEmail("email@email.com")).thenReturn(Optional.of(usuario));
+
+        //acao
+        usuarioServiceBean.autenticarUsuario("email@email.com", "senha").join();
+
+        //verificacao
+        Mockito.verify(usuarioRepository).save(usuario);
+        Assertions.assertTrue(usuario.getSenha().startsWith("$2a$"));
+        Assertions.assertNotNull(usuarioServiceBean.autenticarUsuario("email@email.com", "senha").join());
+        Mockito.verify(usuarioRepository, Mockito.times(1)).save(usuario);
+    }
+
     @Test
     void deveLancarErroQuandoNaoEncontrarUsuarioCadastradoComEmailInformado() {
         //cenario
@@ -63,10 +89,10 @@ class UsuarioServiceTest {
         //acao
         Assertions.
                 assertEquals(Assertions.assertThrows
-                        (ErroAutenticacaoException.class, () -> usuarioServiceBean.
-                                autenticarUsuario("email@email.com", "senha")
+                        (CompletionException.class, () -> usuarioServiceBean.
+                                autenticarUsuario("email@email.com", "senha").join()
                         )
-                        .getMessage(), "Usuário não encontrado para o email informado.");
+                        .getCause().getMessage(), "Usuário não encontrado para o email informado.");
     }
 
     @Test
@@ -77,12 +103,12 @@ class UsuarioServiceTest {
         Mockito.when(usuarioRepository.findByEmail(Mockito.anyString())).thenReturn(Optional.of(usuario));
 
         //acao
-        Assertions.
-                assertEquals(Assertions.assertThrows
-                        (ErroAutenticacaoException.class, () -> usuarioServiceBean.
-                                autenticarUsuario("teste@teste.com", "senhaIncorreta")
-                        )
-                        .getMessage(), "Senha Inválida.");
+        CompletionException erro = Assertions.assertThrows
+                (CompletionException.class, () -> usuarioServiceBean.
+                        autenticarUsuario("teste@teste.com", "senhaIncorreta").join()
+                );
+        Assertions.assertTrue(erro.getCause() instanceof ErroAutenticacaoException);
+        Assertions.assertEquals(erro.getCause().getMessage(), "Senha Inválida.");
     }
 
     @Test
@@ -106,6 +132,50 @@ class UsuarioServiceTest {
         Assertions.assertEquals(usuarioSalvo.getSenha(), "senha");
     }
 
+    @Test
+    void deveGravarOHashDaSenhaAoSalvar() {
+        //cenario
+        Mockito.doNothing().when(usuarioServiceBean).validarEmail(Mockito.anyString());
+        Usuario usuario = Usuario.builder().email("email@email.com").senha("senha").build();
+
+        //acao
+        usuarioServiceBean.salvarUsuario(usuario);
+
+        //verificacao
+        ArgumentCaptor<Usuario> salvo = ArgumentCaptor.forClass(Usuario.class);
+        Mockito.verify(usuarioRepository).save(salvo.capture());
+        Assertions.assertNotEquals(salvo.getValue().getSenha(), "senha");
+        Assertions.assertTrue(new BCryptPasswordEncoder().matches("senha", salvo.getValue().getSenha()));
+    }
+
+    @Test
+    void naoDeveGravarUsuarioComOExecutorDeHashCheio() throws Exception {
+        //cenario
+        UsuarioRepository repositorio = Mockito.mock(UsuarioRepository.class);
+        UsuarioServiceBean servico = new UsuarioServiceBean(repositorio, 4, 1, 1, 100);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(repositorio.findByEmail("email@email.com"))
+                .thenReturn(Optional.of(Usuario.builder().email("email@email.com").senha("senha").id(1L).build()));
+        Mockito.when(repositorio.save(Mockito.any(Usuario.class))).then(invocacao -> {
+            liberar.await();
+            return invocacao.getArgument(0);
+        });
+        try {
+            servico.autenticarUsuario("email@email.com", "senha");
+            servico.autenticarUsuario("email@email.com", "senha");
+
+            //acao
+            Usuario usuario = Usuario.builder().email("novo@email.com").senha("senha").build();
+            Assertions.assertThrows(RejectedExecutionException.class, () -> servico.salvarUsuario(usuario));
+
+            //verificacao
+            Mockito.verify(repositorio, Mockito.never()).save(usuario);
+        } finally {
+            liberar.countDown();
+            servico.encerrar();
+        }
+    }
+
     @Test
     void naoDeveSalvarUsuarioComEmailJaCadastrado() {
         //cenario
@@ -119,4 +189,52 @@ class UsuarioServiceTest {
         //verificacao
         Mockito.verify(usuarioRepository, Mockito.never()).save(usuario);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveTraduzirViolacaoDoEmailUnicoEmRegraNegocio() {
+        //cenario
+        Mockito.when(usuarioRepository.existsByEmail(Mockito.anyString())).thenReturn(false);
+        Mockito.when(usuarioRepository.save(Mockito.any(Usuario.class)))
+                .thenThrow(violacao("\"FINANCAS.UK_USUARIO_EMAIL ON FINANCAS.USUARIO(EMAIL) VALUES 1\""));
+        Usuario usuario = Usuario.builder().email("concorrente@email.com").senha("senha").build();
+
+        //acao
+        RegraNegocioException erro = Assertions.assertThrows(RegraNegocioException.class, () -> usuarioServiceBean.salvarUsuario(usuario));
+
+        //verificacao
+        Assertions.assertEquals(erro.getMessage(), "Já Existe um usuário cadastrado com este email.");
+    }
+
+    @Test
+    void naoDeveTraduzirOutrasViolacoesDeIntegridade() {
+        //cenario
+        Mockito.when(usuarioRepository.existsByEmail(Mockito.anyString())).thenReturn(false);
+        Mockito.when(usuarioRepository.save(Mockito.any(Usuario.class))).thenThrow(violacao("usuario_pkey"));
+        Usuario usuario = Usuario.builder().email("outro@email.com").senha("senha").build();
+
+        //acao / verificacao
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> usuarioServiceBean.salvarUsuario(usuario));
+    }
+
+    private static DataIntegrityViolationException violacao(String indice) {
+        return new DataIntegrityViolationException("violação",
+                new ConstraintViolationException("violação", new SQLException(), indice));
+    }
+
+    @Test
+    @DirtiesContext
+    void naoDeveConsultarOEmailQuandoOFiltroGarantirQueENovo() {
+        //cenario
+        Mockito.when(usuarioRepository.listarEmails()).thenReturn(Stream.of("existente@email.com"));
+        Mockito.when(usuarioRepository.save(Mockito.any(Usuario.class))).then(invocacao -> invocacao.getArgument(0));
+        usuarioServiceBean.carregarFiltroEmails();
+
+        //acao
+        usuarioServiceBean.salvarUsuario(Usuario.builder().email("novo@email.com").build());
+        usuarioServiceBean.salvarUsuario(Usuario.builder().email("existente@email.com").build());
+
+        //verificacao
+        Mockito.verify(usuarioRepository, Mockito.never()).existsByEmail("novo@email.com");
+        Mockito.verify(usuarioRepository).existsByEmail("existente@email.com");
+    }
+}